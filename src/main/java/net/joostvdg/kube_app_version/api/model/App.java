@@ -9,6 +9,7 @@ import java.util.Set;
 public class App {
   private String id;
   private String name;
+  private String cluster;
   private Map<String, String> labels;
   private LocalDateTime firstSeen;
   private LocalDateTime lastSeen;
@@ -47,6 +48,15 @@ public class App {
     this.name = name;
   }
 
+  /** The name of the cluster the app was collected from. */
+  public String getCluster() {
+    return cluster;
+  }
+
+  public void setCluster(String cluster) {
+    this.cluster = cluster;
+  }
+
   public Map<String, String> getLabels() {
     return labels;
   }
@@ -5,5 +5,11 @@ import java.util.Set;
 import net.joostvdg.kube_app_version.api.model.App;
 
 public interface ApplicationCollector {
+
+  /**
+   * Returns the applications found by the latest collection.
+   *
+   * @return an immutable, consistent snapshot that is not affected by collections in progress.
+   */
   Set<App> getCollectedApplications();
 }
@@ -0,0 +1,107 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.collectors;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import net.joostvdg.kube_app_version.api.model.App;
+import net.joostvdg.kube_app_version.api.model.AppArtifact;
+
+/**
+ * Published by a collector after its collected applications changed, so that downstream work can be
+ * limited to what actually changed.
+ *
+ * @param collector the name of the collector that published the change.
+ * @param added apps that were not collected before.
+ * @param updated the new state of apps whose source object changed.
+ * @param removed the last known state of apps that are gone.
+ * @param addedArtifacts artifacts that added or updated apps reference and did not reference
+ *     before.
+ * @param removedArtifacts artifacts that updated or removed apps no longer reference.
+ */
+public record AppsChangedEvent(
+    String collector,
+    Set<App> added,
+    Set<App> updated,
+    Set<App> removed,
+    Set<AppArtifact> addedArtifacts,
+    Set<AppArtifact> removedArtifacts) {
+
+  public AppsChangedEvent {
+    added = Set.copyOf(added);
+    updated = Set.copyOf(updated);
+    removed = Set.copyOf(removed);
+    addedArtifacts = Set.copyOf(addedArtifacts);
+    removedArtifacts = Set.copyOf(removedArtifacts);
+  }
+
+  /**
+   * Builds the change set between two states of a collector, keyed by a stable app key such as the
+   * source object's uid. Apps that are the same instance in both states are unchanged.
+   */
+  public static AppsChangedEvent between(
+      String collector, Map<String, App> before, Map<String, App> after) {
+    Map<String, App> added = new HashMap<>();
+    Map<String, App> updated = new HashMap<>();
+    Map<String, App> removed = new HashMap<>();
+    Map<String, AppArtifact> artifactsBefore = new HashMap<>();
+    Map<String, AppArtifact> artifactsAfter = new HashMap<>();
+
+    after.forEach(
+        (key, app) -> {
+          App previous = before.get(key);
+          if (previous == null) {
+            added.put(key, app);
+            collectArtifacts(key, app, artifactsAfter);
+          } else if (previous != app) {
+            updated.put(key, app);
+            collectArtifacts(key, previous, artifactsBefore);
+            collectArtifacts(key, app, artifactsAfter);
+          }
+        });
+    before.forEach(
+        (key, app) -> {
+          if (!after.containsKey(key)) {
+            removed.put(key, app);
+            collectArtifacts(key, app, artifactsBefore);
+          }
+        });
+
+    return new AppsChangedEvent(
+        collector,
+        Set.copyOf(added.values()),
+        Set.copyOf(updated.values()),
+        Set.copyOf(removed.values()),
+        difference(artifactsAfter, artifactsBefore),
+        difference(artifactsBefore, artifactsAfter));
+  }
+
+  public boolean isEmpty() {
+    return added.isEmpty() && updated.isEmpty() && removed.isEmpty();
+  }
+
+  private static void collectArtifacts(
+      String appKey, App app, Map<String, AppArtifact> artifactsByKey) {
+    if (app.getCurrentVersion() == null || app.getCurrentVersion().getArtifacts() == null) {
+      return;
+    }
+    for (AppArtifact artifact : app.getCurrentVersion().getArtifacts()) {
+      artifactsByKey.put(
+          appKey
+              + "::"
+              + artifact.getArtifactType()
+              + "::"
+              + artifact.getSource()
+              + "::"
+              + artifact.getArtifactName(),
+          artifact);
+    }
+  }
+
+  private static Set<AppArtifact> difference(
+      Map<String, AppArtifact> artifacts, Map<String, AppArtifact> subtracted) {
+    Map<String, AppArtifact> remaining = new HashMap<>(artifacts);
+    remaining.keySet().removeAll(subtracted.keySet());
+    return Set.copyOf(remaining.values());
+  }
+}
@@ -25,11 +25,15 @@ public class CollectorService {
 
   public Set<App> getAllCollectedApps() {
     logger.debug("Fetching all collected apps from {} collectors.", applicationCollectors.size());
+    if (applicationCollectors.size() == 1) {
+      // Collectors hand out immutable snapshots, a single one can be returned without copying
+      return applicationCollectors.get(0).getCollectedApplications();
+    }
     Set<App> allApps =
         applicationCollectors.stream()
             .map(ApplicationCollector::getCollectedApplications)
             .flatMap(Collection::stream)
-            .collect(Collectors.toSet());
+            .collect(Collectors.toUnmodifiableSet());
     logger.info("Total apps collected from all sources: {}", allApps.size());
     return allApps;
   }
@@ -0,0 +1,32 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.collectors;
+
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/**
+ * A projection of Kubernetes object metadata with only the fields the collectors read. The
+ * generated adapter of {@link V1ObjectMeta} parses through a JSON tree, including {@code
+ * managedFields} and annotations; this class is read field by field and skips everything else.
+ */
+public class ObjectMetadata {
+
+  private String name;
+  private String namespace;
+  private String uid;
+  private String resourceVersion;
+  private Map<String, String> labels;
+  private OffsetDateTime creationTimestamp;
+
+  /** Returns the metadata as the client's model, as informers and caches expect it. */
+  public V1ObjectMeta toObjectMeta() {
+    return new V1ObjectMeta()
+        .name(name)
+        .namespace(namespace)
+        .uid(uid)
+        .resourceVersion(resourceVersion)
+        .labels(labels)
+        .creationTimestamp(creationTimestamp);
+  }
+}
@@ -0,0 +1,120 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.collectors.argo;
+
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import java.util.List;
+import net.joostvdg.kube_app_version.collectors.ObjectMetadata;
+
+/**
+ * A projection of an Argo CD Application that only holds the fields the collector reads. It is
+ * deserialized directly from the API response, so every other field, including large ones such as
+ * {@code metadata.managedFields}, {@code status.resources} and {@code status.history}, is skipped
+ * by the JSON reader instead of being materialized as a JSON tree.
+ */
+public class ArgoApplication implements KubernetesObject {
+
+  private String apiVersion;
+  private String kind;
+  private ObjectMetadata metadata;
+  private Spec spec;
+  private Status status;
+  // Built on first use, the informer asks for the metadata of every object repeatedly
+  private transient V1ObjectMeta objectMeta;
+
+  @Override
+  public String getApiVersion() {
+    return apiVersion;
+  }
+
+  @Override
+  public String getKind() {
+    return kind;
+  }
+
+  @Override
+  public V1ObjectMeta getMetadata() {
+    if (objectMeta == null && metadata != null) {
+      objectMeta = metadata.toObjectMeta();
+    }
+    return objectMeta;
+  }
+
+  public Spec getSpec() {
+    return spec;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public static class Spec {
+    private Source source;
+    private List<Source> sources;
+
+    public Source getSource() {
+      return source;
+    }
+
+    public List<Source> getSources() {
+      return sources;
+    }
+  }
+
+  public static class Source {
+    private String repoURL;
+    private String chart;
+    private String targetRevision;
+    private String path;
+    private Present plugin;
+    private Present directory;
+
+    public String getRepoURL() {
+      return repoURL;
+    }
+
+    public String getChart() {
+      return chart;
+    }
+
+    public String getTargetRevision() {
+      return targetRevision;
+    }
+
+    public String getPath() {
+      return path;
+    }
+
+    public boolean hasPlugin() {
+      return plugin != null;
+    }
+
+    public boolean hasDirectory() {
+      return directory != null;
+    }
+  }
+
+  public static class Status {
+    private Sync sync;
+    private Summary summary;
+
+    public String getSyncRevision() {
+      return sync != null ? sync.revision : null;
+    }
+
+    public List<String> getImages() {
+      return summary != null && summary.images != null ? summary.images : List.of();
+    }
+  }
+
+  static class Sync {
+    private String revision;
+  }
+
+  static class Summary {
+    private List<String> images;
+  }
+
+  /** Only records that an object is set, its fields are skipped. */
+  static class Present {}
+}
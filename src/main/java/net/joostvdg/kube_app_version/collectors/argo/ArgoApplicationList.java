@@ -0,0 +1,35 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.collectors.argo;
+
+import io.kubernetes.client.common.KubernetesListObject;
+import io.kubernetes.client.openapi.models.V1ListMeta;
+import java.util.List;
+
+/** A page of {@link ArgoApplication}s as returned by a list request. */
+public class ArgoApplicationList implements KubernetesListObject {
+
+  private String apiVersion;
+  private String kind;
+  private V1ListMeta metadata;
+  private List<ArgoApplication> items;
+
+  @Override
+  public String getApiVersion() {
+    return apiVersion;
+  }
+
+  @Override
+  public String getKind() {
+    return kind;
+  }
+
+  @Override
+  public V1ListMeta getMetadata() {
+    return metadata;
+  }
+
+  @Override
+  public List<ArgoApplication> getItems() {
+    return items;
+  }
+}
@@ -0,0 +1,69 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.collectors.argo;
+
+import io.kubernetes.client.informer.ListerWatcher;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.util.CallGeneratorParams;
+import io.kubernetes.client.util.Watchable;
+import io.kubernetes.client.util.generic.GenericKubernetesApi;
+import io.kubernetes.client.util.generic.KubernetesApiResponse;
+import io.kubernetes.client.util.generic.options.ListOptions;
+
+/**
+ * Lists and watches the Applications of one namespace, or of all namespaces, with the configured
+ * label and field selectors applied by the API server.
+ */
+class ArgoApplicationListerWatcher implements ListerWatcher<ArgoApplication, ArgoApplicationList> {
+
+  private final GenericKubernetesApi<ArgoApplication, ArgoApplicationList> api;
+  private final String namespace;
+  private final ArgoCollectorConfig config;
+
+  /**
+   * @param namespace the namespace to list and watch, or null for all namespaces.
+   */
+  ArgoApplicationListerWatcher(
+      GenericKubernetesApi<ArgoApplication, ArgoApplicationList> api,
+      String namespace,
+      ArgoCollectorConfig config) {
+    this.api = api;
+    this.namespace = namespace;
+    this.config = config;
+  }
+
+  @Override
+  public ArgoApplicationList list(CallGeneratorParams params) throws ApiException {
+    ListOptions listOptions = listOptions(config);
+    listOptions.setResourceVersion(params.resourceVersion);
+    listOptions.setTimeoutSeconds(params.timeoutSeconds);
+    return list(api, namespace, listOptions).throwsApiException().getObject();
+  }
+
+  @Override
+  public Watchable<ArgoApplication> watch(CallGeneratorParams params) throws ApiException {
+    ListOptions listOptions = listOptions(config);
+    listOptions.setResourceVersion(params.resourceVersion);
+    listOptions.setTimeoutSeconds(params.timeoutSeconds);
+    return namespace == null ? api.watch(listOptions) : api.watch(namespace, listOptions);
+  }
+
+  /** Returns list options with the configured selectors, if any. */
+  static ListOptions listOptions(ArgoCollectorConfig config) {
+    ListOptions listOptions = new ListOptions();
+    if (config.getLabelSelector() != null && !config.getLabelSelector().isBlank()) {
+      listOptions.setLabelSelector(config.getLabelSelector());
+    }
+    if (config.getFieldSelector() != null && !config.getFieldSelector().isBlank()) {
+      listOptions.setFieldSelector(config.getFieldSelector());
+    }
+    return listOptions;
+  }
+
+  /** Lists the Applications of a namespace, or of all namespaces if it is null. */
+  static KubernetesApiResponse<ArgoApplicationList> list(
+      GenericKubernetesApi<ArgoApplication, ArgoApplicationList> api,
+      String namespace,
+      ListOptions listOptions) {
+    return namespace == null ? api.list(listOptions) : api.list(namespace, listOptions);
+  }
+}
@@ -1,109 +1,185 @@
 /* (C)2025 */
 package net.joostvdg.kube_app_version.collectors.argo;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import io.kubernetes.client.openapi.ApiClient;
-import io.kubernetes.client.openapi.ApiException;
-import io.kubernetes.client.util.generic.dynamic.DynamicKubernetesApi;
-import io.kubernetes.client.util.generic.dynamic.DynamicKubernetesObject;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.SharedInformerFactory;
+import io.kubernetes.client.util.generic.GenericKubernetesApi;
+import io.kubernetes.client.util.generic.KubernetesApiResponse;
+import io.kubernetes.client.util.generic.options.ListOptions;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import net.joostvdg.kube_app_version.api.model.App;
 import net.joostvdg.kube_app_version.api.model.AppArtifact;
 import net.joostvdg.kube_app_version.api.model.AppVersion;
 import net.joostvdg.kube_app_version.collectors.ApplicationCollector;
+import net.joostvdg.kube_app_version.collectors.AppsChangedEvent;
+import net.joostvdg.kube_app_version.config.KubernetesClusters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ArgoCollector implements ApplicationCollector {
-  private final Set<App> argoApps = Collections.synchronizedSet(new HashSet<>());
+  // All apps of all clusters, replaced as a whole so readers never see a partial collection
+  private volatile Set<App> allApps = Set.of();
+  private final Object writeLock = new Object();
   private final Logger logger = LoggerFactory.getLogger(ArgoCollector.class);
-  private final ApiClient apiClient;
+  private final List<ClusterCollection> collections;
   private final ArgoCollectorConfig config;
+  private final ApplicationEventPublisher eventPublisher;
   private static final String AMSTERDAM_ZONE_ID = "Europe/Amsterdam";
-
-  public ArgoCollector(ApiClient apiClient, ArgoCollectorConfig config) {
-    this.apiClient = apiClient;
+  private static final String COLLECTOR_NAME = "argo";
+  // Converts the Applications of a page concurrently, null when conversion is sequential
+  private final ForkJoinPool conversionPool;
+  // Runs the collections of the clusters, one thread per cluster so they do not wait on each other
+  private ScheduledExecutorService collectionScheduler;
+
+  public ArgoCollector(
+      KubernetesClusters kubernetesClusters,
+      ArgoCollectorConfig config,
+      ApplicationEventPublisher eventPublisher) {
     this.config = config;
+    this.eventPublisher = eventPublisher;
+    int parallelism =
+        config.getConversionParallelism() > 0
+            ? config.getConversionParallelism()
+            : Runtime.getRuntime().availableProcessors();
+    this.conversionPool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    this.collections = kubernetesClusters.clusters().stream().map(ClusterCollection::new).toList();
   }
 
   @PostConstruct
   private void init() {
-    logger.info("Initializing Argo Collector");
-    if (config.isRunOnStartup()) {
-      try {
-        collectArgoApplications();
-      } catch (ApiException e) {
-        logger.error(
-            "Failed to collect Argo Applications during initialization: {}", e.getMessage(), e);
-        throw new RuntimeException(e);
+    logger.info("Initializing Argo Collector for {} clusters", collections.size());
+    collectionScheduler =
+        Executors.newScheduledThreadPool(
+            collections.size(), Thread.ofPlatform().name("argo-collector-", 0).daemon().factory());
+    if (config.getMode() == ArgoCollectorConfig.CollectionMode.INFORMER) {
+      collections.forEach(ClusterCollection::startInformer);
+      if (config.isRunOnStartup()) {
+        collections.forEach(ClusterCollection::waitForInitialSync);
       }
+      return;
+    }
+
+    if (config.isRunOnStartup()) {
+      collectAll();
     } else {
       logger.info("Skipping initial collection as configured (runOnStartup=false)");
     }
-  }
-
-  @Scheduled(
-      fixedDelayString = "${argo.collector.collectionIntervalMinutes:15}",
-      timeUnit = TimeUnit.MINUTES)
-  public void scheduledCollection() {
     if (!config.isScheduledCollectionEnabled()) {
-      logger.debug("Scheduled collection is disabled by configuration");
+      logger.info("Scheduled collection is disabled by configuration");
       return;
     }
-
-    logger.info("Running scheduled Argo application collection");
-    try {
-      collectArgoApplications();
-    } catch (ApiException e) {
-      logger.error("Failed to collect Argo Applications in scheduled run: {}", e.getMessage(), e);
+    for (ClusterCollection collection : collections) {
+      long interval = collection.collectionIntervalMinutes();
+      ScheduledFuture<?> unused =
+          collectionScheduler.scheduleWithFixedDelay(
+              collection::collect, interval, interval, TimeUnit.MINUTES);
     }
   }
 
-  private void collectArgoApplications() throws ApiException {
-    List<DynamicKubernetesObject> argoAppList = fetchArgoApplications();
-
-    // Clear previously collected apps
-    argoApps.clear();
-
-    if (argoAppList.isEmpty()) {
-      logger.warn("No Argo Applications found.");
-      return;
+  @PreDestroy
+  void shutdown() {
+    collections.forEach(ClusterCollection::stopInformer);
+    if (collectionScheduler != null) {
+      collectionScheduler.shutdownNow();
     }
+    if (conversionPool != null) {
+      conversionPool.shutdown();
+    }
+  }
 
-    for (DynamicKubernetesObject argoAppCr : argoAppList) {
-      App discoveredApp = processArgoApplication(argoAppCr);
-      argoApps.add(discoveredApp);
+  /** Collects from all clusters concurrently and waits until every collection has finished. */
+  private void collectAll() {
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (ClusterCollection collection : collections) {
+      tasks.add(
+          () -> {
+            collection.collect();
+            return null;
+          });
     }
+    try {
+      collectionScheduler.invokeAll(tasks);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
 
-    logger.info("Finished collecting Argo applications. Total found: {}", argoApps.size());
+  /**
+   * Returns the app for an Application, reusing the app of the given snapshot if the Application's
+   * resourceVersion is unchanged. The resourceVersion rather than the generation is compared,
+   * because status changes (synced revision, images) matter as well.
+   */
+  private App appFor(
+      String key, ArgoApplication argoAppCr, AppsSnapshot snapshot, String clusterName) {
+    String seenResourceVersion = snapshot.resourceVersions().get(key);
+    if (seenResourceVersion != null && seenResourceVersion.equals(resourceVersion(argoAppCr))) {
+      return snapshot.appsByKey().get(key);
+    }
+    App app = processArgoApplication(argoAppCr);
+    app.setCluster(clusterName);
+    return app;
   }
 
-  private List<DynamicKubernetesObject> fetchArgoApplications() throws ApiException {
-    DynamicKubernetesApi dynamicApi =
-        new DynamicKubernetesApi("argoproj.io", "v1alpha1", "applications", apiClient);
+  /** Converts a page of Applications of a cluster to apps, in the order of the page. */
+  List<App> processArgoApplications(String clusterName, List<ArgoApplication> argoAppCrs) {
+    return appsFor(argoAppCrs, AppsSnapshot.EMPTY, clusterName);
+  }
 
-    if (dynamicApi.list() == null
-        || dynamicApi.list().getObject() == null
-        || dynamicApi.list().getObject().getItems() == null) {
-      return Collections.emptyList();
+  /**
+   * Returns the apps for a page of Applications, in the order of the page. Walking the JSON of the
+   * Applications is CPU bound, so with a conversion pool the page is split across its threads.
+   */
+  private List<App> appsFor(
+      List<ArgoApplication> argoAppCrs, AppsSnapshot snapshot, String clusterName) {
+    Function<ArgoApplication, App> convert =
+        argoAppCr -> appFor(appKey(argoAppCr), argoAppCr, snapshot, clusterName);
+    if (conversionPool == null || argoAppCrs.size() < 2) {
+      return argoAppCrs.stream().map(convert).toList();
     }
+    // A parallel stream started from a pool thread runs in that pool, toList keeps the encounter
+    // order
+    return conversionPool.submit(() -> argoAppCrs.parallelStream().map(convert).toList()).join();
+  }
+
+  /** The namespaces to collect from; a single null entry stands for all namespaces. */
+  private List<String> namespaces() {
+    return config.getNamespaces() == null || config.getNamespaces().isEmpty()
+        ? Collections.singletonList(null)
+        : config.getNamespaces();
+  }
+
+  private static String appKey(ArgoApplication argoAppCr) {
+    String uid = argoAppCr.getMetadata().getUid();
+    return uid != null
+        ? uid
+        : argoAppCr.getMetadata().getNamespace() + "/" + argoAppCr.getMetadata().getName();
+  }
 
-    return dynamicApi.list().getObject().getItems();
+  private static String resourceVersion(ArgoApplication argoAppCr) {
+    return argoAppCr.getMetadata() != null ? argoAppCr.getMetadata().getResourceVersion() : null;
   }
 
-  App processArgoApplication(DynamicKubernetesObject argoAppCr) {
+  App processArgoApplication(ArgoApplication argoAppCr) {
     String appName = argoAppCr.getMetadata().getName();
-    logger.info("Processing Argo Application: {}", appName);
+    logger.debug("Processing Argo Application: {}", appName);
 
     App discoveredApp = createBasicAppInfo(argoAppCr, appName);
     AppVersion currentVersion = createAppVersion(argoAppCr, appName, discoveredApp.getLabels());
@@ -124,7 +200,7 @@ public class ArgoCollector implements ApplicationCollector {
     return discoveredApp;
   }
 
-  private App createBasicAppInfo(DynamicKubernetesObject argoAppCr, String appName) {
+  private App createBasicAppInfo(ArgoApplication argoAppCr, String appName) {
     App discoveredApp = new App();
     discoveredApp.setId(argoAppCr.getMetadata().getUid());
     discoveredApp.setName(appName);
@@ -146,66 +222,55 @@ public class ArgoCollector implements ApplicationCollector {
   }
 
   private AppVersion createAppVersion(
-      DynamicKubernetesObject argoAppCr, String appName, Map<String, String> appLabels) {
+      ArgoApplication argoAppCr, String appName, Map<String, String> appLabels) {
     AppVersion currentVersion = new AppVersion();
     currentVersion.setDiscoveredAt(now());
 
     // Copy labels from App
     currentVersion.setLabels(new HashMap<>(appLabels));
 
-    JsonObject rawCr = argoAppCr.getRaw();
-    String appVersionString = extractVersionString(rawCr, appName);
+    String appVersionString = extractVersionString(argoAppCr, appName);
     currentVersion.setVersion(appVersionString);
 
-    Set<AppArtifact> artifacts = extractArtifacts(rawCr, appName);
+    Set<AppArtifact> artifacts = extractArtifacts(argoAppCr, appName);
     currentVersion.setArtifacts(artifacts);
 
     return currentVersion;
   }
 
-  private String extractVersionString(JsonObject rawCr, String appName) {
-    JsonObject spec = rawCr.getAsJsonObject("spec");
-    JsonObject status = rawCr.getAsJsonObject("status");
-
+  private String extractVersionString(ArgoApplication argoAppCr, String appName) {
     String appVersionString = "unknown";
 
     // Try to extract from status first
-    if (status != null && status.has("sync") && status.get("sync").isJsonObject()) {
-      JsonObject syncStatus = status.getAsJsonObject("sync");
-      if (syncStatus.has("revision") && syncStatus.get("revision").isJsonPrimitive()) {
-        appVersionString = syncStatus.get("revision").getAsString();
-      }
+    if (argoAppCr.getStatus() != null && argoAppCr.getStatus().getSyncRevision() != null) {
+      appVersionString = argoAppCr.getStatus().getSyncRevision();
     }
 
     // Fallback to spec if needed
-    if (("unknown".equals(appVersionString) || appVersionString.isEmpty()) && spec != null) {
-      appVersionString = extractVersionFromSpec(spec, appName);
+    if (("unknown".equals(appVersionString) || appVersionString.isEmpty())
+        && argoAppCr.getSpec() != null) {
+      appVersionString = extractVersionFromSpec(argoAppCr.getSpec(), appName);
     }
 
     return appVersionString;
   }
 
-  private String extractVersionFromSpec(JsonObject spec, String appName) {
+  private String extractVersionFromSpec(ArgoApplication.Spec spec, String appName) {
     String appVersionString = "unknown";
 
-    if (spec.has("source") && spec.get("source").isJsonObject()) {
-      JsonObject source = spec.getAsJsonObject("source");
-      if (source.has("targetRevision") && source.get("targetRevision").isJsonPrimitive()) {
-        appVersionString = source.get("targetRevision").getAsString();
+    if (spec.getSource() != null) {
+      if (spec.getSource().getTargetRevision() != null) {
+        appVersionString = spec.getSource().getTargetRevision();
       }
-    } else if (spec.has("sources") && spec.get("sources").isJsonArray()) {
-      JsonArray sourcesArray = spec.getAsJsonArray("sources");
-      if (!sourcesArray.isEmpty() && sourcesArray.get(0).isJsonObject()) {
-        JsonObject firstSource = sourcesArray.get(0).getAsJsonObject();
-        if (firstSource.has("targetRevision")
-            && firstSource.get("targetRevision").isJsonPrimitive()) {
-          appVersionString = firstSource.get("targetRevision").getAsString();
-          if (sourcesArray.size() > 1) {
-            logger.debug(
-                "Argo App {} has multiple sources. Using targetRevision from first source: {}",
-                appName,
-                appVersionString);
-          }
+    } else if (spec.getSources() != null && !spec.getSources().isEmpty()) {
+      ArgoApplication.Source firstSource = spec.getSources().get(0);
+      if (firstSource != null && firstSource.getTargetRevision() != null) {
+        appVersionString = firstSource.getTargetRevision();
+        if (spec.getSources().size() > 1) {
+          logger.debug(
+              "Argo App {} has multiple sources. Using targetRevision from first source: {}",
+              appName,
+              appVersionString);
         }
       }
     }
@@ -213,93 +278,76 @@ public class ArgoCollector implements ApplicationCollector {
     return appVersionString;
   }
 
-  private Set<AppArtifact> extractArtifacts(JsonObject rawCr, String appName) {
+  private Set<AppArtifact> extractArtifacts(ArgoApplication argoAppCr, String appName) {
     Set<AppArtifact> artifacts = new HashSet<>();
-    JsonObject spec = rawCr.getAsJsonObject("spec");
-    JsonObject status = rawCr.getAsJsonObject("status");
 
     // Extract source artifacts from spec
-    extractSourceArtifacts(spec, artifacts, appName);
+    extractSourceArtifacts(argoAppCr.getSpec(), artifacts, appName);
 
     // Extract deployed image artifacts from status
-    extractImageArtifacts(status, artifacts, appName);
+    extractImageArtifacts(argoAppCr.getStatus(), artifacts, appName);
 
     return artifacts;
   }
 
-  private void extractSourceArtifacts(JsonObject spec, Set<AppArtifact> artifacts, String appName) {
+  private void extractSourceArtifacts(
+      ArgoApplication.Spec spec, Set<AppArtifact> artifacts, String appName) {
     if (spec == null) {
       logger.debug("Argo App {} has no 'spec' field. Cannot extract source artifacts.", appName);
       return;
     }
 
-    if (spec.has("source") && spec.get("source").isJsonObject()) {
-      JsonObject source = spec.getAsJsonObject("source");
-      extractSourceArtifact(source, artifacts, appName);
-    } else if (spec.has("sources") && spec.get("sources").isJsonArray()) {
-      JsonArray sourcesArray = spec.getAsJsonArray("sources");
-      for (JsonElement sourceElement : sourcesArray) {
-        if (sourceElement.isJsonObject()) {
-          extractSourceArtifact(sourceElement.getAsJsonObject(), artifacts, appName);
-        }
+    if (spec.getSource() != null) {
+      extractSourceArtifact(spec.getSource(), artifacts, appName);
+    } else if (spec.getSources() != null) {
+      for (ArgoApplication.Source source : spec.getSources()) {
+        extractSourceArtifact(source, artifacts, appName);
       }
     }
   }
 
   private void extractImageArtifacts(
-      JsonObject status, Set<AppArtifact> artifacts, String appName) {
-    if (status != null && status.has("summary") && status.get("summary").isJsonObject()) {
-      JsonObject summary = status.getAsJsonObject("summary");
-      if (summary.has("images") && summary.get("images").isJsonArray()) {
-        JsonArray images = summary.getAsJsonArray("images");
-        for (JsonElement imageElement : images) {
-          if (imageElement.isJsonPrimitive()) {
-            String imageName = imageElement.getAsString();
-            AppArtifact artifact = new AppArtifact(imageName, "containerImage", appName);
-            artifacts.add(artifact);
-          }
-        }
+      ArgoApplication.Status status, Set<AppArtifact> artifacts, String appName) {
+    if (status == null) {
+      return;
+    }
+    for (String imageName : status.getImages()) {
+      if (imageName != null) {
+        AppArtifact artifact = new AppArtifact(imageName, "containerImage", appName);
+        artifacts.add(artifact);
       }
     }
   }
 
   private void extractSourceArtifact(
-      JsonObject source, Set<AppArtifact> artifacts, String appName) {
+      ArgoApplication.Source source, Set<AppArtifact> artifacts, String appName) {
     if (source == null) {
       return;
     }
 
     // Extract repository URL if available
-    if (source.has("repoURL") && source.get("repoURL").isJsonPrimitive()) {
-      String repoUrl = source.get("repoURL").getAsString();
+    if (source.getRepoURL() != null) {
       String sourceType = determineSourceType(source);
-
-      repoUrl = verifyURLForSpecialCases(repoUrl);
+      String repoUrl = verifyURLForSpecialCases(source.getRepoURL());
 
       // For Helm charts, use the chart name as artifact name, otherwise use app name
       String artifactName = appName;
-      if ("helm".equals(sourceType)
-          && source.has("chart")
-          && source.get("chart").isJsonPrimitive()) {
-        artifactName = source.get("chart").getAsString();
+      if ("helm".equals(sourceType)) {
+        artifactName = source.getChart();
       }
 
       // Create artifact with repo URL and correct artifact name
       AppArtifact artifact = new AppArtifact(repoUrl, sourceType, artifactName);
 
       // Add optional chart info for Helm charts
-      if ("helm".equals(sourceType)
-          && source.has("chart")
-          && source.get("chart").isJsonPrimitive()) {
-        artifact.addMetadata("chart", source.get("chart").getAsString());
+      if ("helm".equals(sourceType)) {
+        artifact.addMetadata("chart", source.getChart());
       }
 
       // Add path for non-root directory sources
-      if (source.has("path") && source.get("path").isJsonPrimitive()) {
-        String path = source.get("path").getAsString();
-        if (path != null && !path.isEmpty() && !"/".equals(path)) {
-          artifact.addMetadata("path", path);
-        }
+      String path = source.getPath();
+      if (path != null && !path.isEmpty() && !"/".equals(path)) {
+        artifact.addMetadata("path", path);
       }
 
       artifacts.add(artifact);
@@ -320,12 +368,12 @@ public class ArgoCollector implements ApplicationCollector {
     return repoUrl;
   }
 
-  private String determineSourceType(JsonObject source) {
-    if (source.has("chart") && source.get("chart").isJsonPrimitive()) {
+  private String determineSourceType(ArgoApplication.Source source) {
+    if (source.getChart() != null) {
       return "helm";
-    } else if (source.has("plugin") && source.get("plugin").isJsonObject()) {
+    } else if (source.hasPlugin()) {
       return "plugin";
-    } else if (source.has("directory") && source.get("directory").isJsonObject()) {
+    } else if (source.hasDirectory()) {
       return "directory";
     } else {
       return "git"; // Default to git
@@ -338,6 +386,344 @@ public class ArgoCollector implements ApplicationCollector {
 
   @Override
   public Set<App> getCollectedApplications() {
-    return Collections.unmodifiableSet(argoApps);
+    return allApps;
+  }
+
+  private Set<App> combinedApps() {
+    if (collections.size() == 1) {
+      return collections.get(0).snapshot.apps();
+    }
+    Set<App> combined = new HashSet<>();
+    collections.forEach(collection -> combined.addAll(collection.snapshot.apps()));
+    return Collections.unmodifiableSet(combined);
+  }
+
+  /**
+   * The Applications of one cluster. Each cluster is listed or watched through its own client and
+   * keeps its own snapshot, so a failing cluster keeps its previous apps without affecting the
+   * others.
+   */
+  private final class ClusterCollection {
+    private final KubernetesClusters.Cluster cluster;
+    private final String collectorName;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private volatile AppsSnapshot snapshot = AppsSnapshot.EMPTY;
+    // One informer per namespace, a factory only holds a single informer per type
+    private final List<SharedInformerFactory> informerFactories = new ArrayList<>();
+    private final List<SharedIndexInformer<ArgoApplication>> informers = new ArrayList<>();
+
+    ClusterCollection(KubernetesClusters.Cluster cluster) {
+      this.cluster = cluster;
+      this.collectorName = COLLECTOR_NAME + "/" + cluster.name();
+    }
+
+    long collectionIntervalMinutes() {
+      return cluster.collectionIntervalMinutes() != null
+          ? cluster.collectionIntervalMinutes()
+          : config.getCollectionIntervalMinutes();
+    }
+
+    /** Collects the cluster's Applications. Failures are logged, the previous apps are kept. */
+    synchronized void collect() {
+      logger.info("Running Argo application collection for cluster {}", cluster.name());
+      try {
+        collectArgoApplications();
+      } catch (Exception e) {
+        logger.error(
+            "Failed to collect Argo Applications of cluster {}: {}",
+            cluster.name(),
+            e.getMessage(),
+            e);
+      }
+    }
+
+    /**
+     * Lists the Applications of the configured namespaces in pages of {@code listPageSize} using
+     * {@code limit}/{@code continue}. Each page is converted to apps and dropped before the next
+     * one is requested, so memory use depends on the page size rather than on the number of
+     * Applications. Applications whose resourceVersion did not change since the previous collection
+     * keep their collected app.
+     */
+    private void collectArgoApplications() {
+      GenericKubernetesApi<ArgoApplication, ArgoApplicationList> argoApi = argoApplicationsApi();
+      AppsSnapshot previous = snapshot;
+      Map<String, App> collectedApps = new HashMap<>();
+      Map<String, String> resourceVersions = new HashMap<>();
+      int pageCount = 0;
+      for (String namespace : namespaces()) {
+        int namespacePages =
+            listApplications(argoApi, namespace, previous, collectedApps, resourceVersions);
+        if (namespacePages < 0) {
+          return;
+        }
+        pageCount += namespacePages;
+      }
+
+      publish(new AppsSnapshot(collectedApps, resourceVersions));
+      if (collectedApps.isEmpty()) {
+        logger.warn("No Argo Applications found in cluster {}.", cluster.name());
+        return;
+      }
+
+      logger.info(
+          "Finished collecting Argo applications of cluster {}. Total found: {} in {} pages",
+          cluster.name(),
+          snapshot.size(),
+          pageCount);
+    }
+
+    /**
+     * Lists the Applications of a namespace, or of all namespaces if it is null, into the given
+     * maps.
+     *
+     * @return the number of pages listed, or -1 if the list failed.
+     */
+    private int listApplications(
+        GenericKubernetesApi<ArgoApplication, ArgoApplicationList> argoApi,
+        String namespace,
+        AppsSnapshot previous,
+        Map<String, App> collectedApps,
+        Map<String, String> resourceVersions) {
+      Map<String, App> namespaceApps = new HashMap<>();
+      Map<String, String> namespaceResourceVersions = new HashMap<>();
+      String continueToken = null;
+      boolean restarted = false;
+      int pageCount = 0;
+      do {
+        ListOptions listOptions = ArgoApplicationListerWatcher.listOptions(config);
+        listOptions.setLimit(config.getListPageSize());
+        listOptions.setContinue(continueToken);
+        KubernetesApiResponse<ArgoApplicationList> response =
+            ArgoApplicationListerWatcher.list(argoApi, namespace, listOptions);
+
+        if (response == null || !response.isSuccess() || response.getObject() == null) {
+          int statusCode = response != null ? response.getHttpStatusCode() : -1;
+          if (statusCode == 410 && continueToken != null && !restarted) {
+            // The continue token expired while paging, the list has to start over
+            logger.warn(
+                "Argo Application list of cluster {} expired after {} pages, restarting",
+                cluster.name(),
+                pageCount);
+            namespaceApps.clear();
+            namespaceResourceVersions.clear();
+            continueToken = null;
+            restarted = true;
+            continue;
+          }
+          logger.error(
+              "Failed to list Argo Applications of cluster {} in {} (HTTP status {}), keeping {}"
+                  + " previously collected apps",
+              cluster.name(),
+              namespace != null ? "namespace " + namespace : "all namespaces",
+              statusCode,
+              snapshot.size());
+          return -1;
+        }
+
+        ArgoApplicationList page = response.getObject();
+        if (page.getItems() != null) {
+          List<App> pageApps = appsFor(page.getItems(), previous, cluster.name());
+          for (int i = 0; i < pageApps.size(); i++) {
+            ArgoApplication argoAppCr = page.getItems().get(i);
+            String key = appKey(argoAppCr);
+            namespaceApps.put(key, pageApps.get(i));
+            namespaceResourceVersions.put(key, resourceVersion(argoAppCr));
+          }
+        }
+        continueToken = page.getMetadata() != null ? page.getMetadata().getContinue() : null;
+        pageCount++;
+      } while (continueToken != null && !continueToken.isEmpty());
+
+      collectedApps.putAll(namespaceApps);
+      resourceVersions.putAll(namespaceResourceVersions);
+      return pageCount;
+    }
+
+    /**
+     * Applications are read into {@link ArgoApplication} projections rather than generic JSON
+     * trees, so only the fields the collector uses are kept.
+     */
+    private GenericKubernetesApi<ArgoApplication, ArgoApplicationList> argoApplicationsApi() {
+      return new GenericKubernetesApi<>(
+          ArgoApplication.class,
+          ArgoApplicationList.class,
+          "argoproj.io",
+          "v1alpha1",
+          "applications",
+          cluster.apiClient());
+    }
+
+    /**
+     * Starts shared informers that list the Applications of the configured namespaces once and then
+     * follow them through a watch, both with the configured selectors. Events only schedule a
+     * rebuild of the snapshot from the informer caches, in which only added and changed
+     * Applications are converted. When the watch's resourceVersion has expired, the informer lists
+     * again; Applications whose resourceVersion did not change in the meantime are skipped.
+     */
+    void startInformer() {
+      GenericKubernetesApi<ArgoApplication, ArgoApplicationList> argoApi = argoApplicationsApi();
+      for (String namespace : namespaces()) {
+        SharedInformerFactory informerFactory = new SharedInformerFactory(cluster.apiClient());
+        SharedIndexInformer<ArgoApplication> informer =
+            informerFactory.sharedIndexInformerFor(
+                new ArgoApplicationListerWatcher(argoApi, namespace, config),
+                ArgoApplication.class,
+                TimeUnit.MINUTES.toMillis(config.getInformerResyncMinutes()));
+        informer.addEventHandler(eventHandler());
+        informerFactories.add(informerFactory);
+        informers.add(informer);
+      }
+
+      logger.info("Starting Argo Application informer for cluster {}", cluster.name());
+      informerFactories.forEach(SharedInformerFactory::startAllRegisteredInformers);
+    }
+
+    private ResourceEventHandler<ArgoApplication> eventHandler() {
+      return new ResourceEventHandler<>() {
+        @Override
+        public void onAdd(ArgoApplication argoAppCr) {
+          scheduleRebuild();
+        }
+
+        @Override
+        public void onUpdate(ArgoApplication oldCr, ArgoApplication newCr) {
+          scheduleRebuild();
+        }
+
+        @Override
+        public void onDelete(ArgoApplication argoAppCr, boolean finalStateUnknown) {
+          logger.info(
+              "Argo Application removed from cluster {}: {}",
+              cluster.name(),
+              argoAppCr.getMetadata().getName());
+          scheduleRebuild();
+        }
+      };
+    }
+
+    void stopInformer() {
+      if (!informerFactories.isEmpty()) {
+        logger.info("Stopping Argo Application informer for cluster {}", cluster.name());
+        informerFactories.forEach(SharedInformerFactory::stopAllRegisteredInformers);
+      }
+    }
+
+    void waitForInitialSync() {
+      long deadline =
+          System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getInformerSyncTimeoutSeconds());
+      try {
+        while (!informers.stream().allMatch(SharedIndexInformer::hasSynced)) {
+          if (System.nanoTime() > deadline) {
+            logger.warn(
+                "Argo Application informer for cluster {} did not sync within {} seconds,"
+                    + " continuing in the background",
+                cluster.name(),
+                config.getInformerSyncTimeoutSeconds());
+            return;
+          }
+          Thread.sleep(100);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      rebuild();
+      logger.info(
+          "Argo Application informer for cluster {} synced. Total found: {}",
+          cluster.name(),
+          snapshot.size());
+    }
+
+    /**
+     * Rebuilds the snapshot shortly after an informer event, so that a burst of events, such as the
+     * initial list of every namespace, is handled with a single rebuild and change set.
+     */
+    private void scheduleRebuild() {
+      if (rebuildScheduled.compareAndSet(false, true)) {
+        ScheduledFuture<?> unused =
+            collectionScheduler.schedule(
+                this::rebuild, config.getRebuildDelayMillis(), TimeUnit.MILLISECONDS);
+      }
+    }
+
+    /**
+     * Builds the snapshot from the informer caches, reusing the apps of Applications whose
+     * resourceVersion did not change.
+     */
+    private synchronized void rebuild() {
+      rebuildScheduled.set(false);
+      try {
+        AppsSnapshot previous = snapshot;
+        Map<String, App> apps = new HashMap<>();
+        Map<String, String> resourceVersions = new HashMap<>();
+        for (SharedIndexInformer<ArgoApplication> informer : informers) {
+          for (ArgoApplication argoAppCr : informer.getIndexer().list()) {
+            String key = appKey(argoAppCr);
+            apps.put(key, appFor(key, argoAppCr, previous, cluster.name()));
+            resourceVersions.put(key, resourceVersion(argoAppCr));
+          }
+        }
+        publish(new AppsSnapshot(apps, resourceVersions));
+      } catch (RuntimeException e) {
+        logger.error(
+            "Failed to rebuild the Argo apps of cluster {}, keeping {} previously collected apps:"
+                + " {}",
+            cluster.name(),
+            snapshot.size(),
+            e.getMessage(),
+            e);
+      }
+    }
+
+    /**
+     * Makes the snapshot visible to readers and announces what changed compared to the previous
+     * one. Callers hold the lock of the cluster while they build and publish its snapshot, so
+     * updates of a cluster are never lost; the write lock guards the combined apps of all clusters.
+     */
+    private void publish(AppsSnapshot next) {
+      AppsSnapshot previous;
+      synchronized (writeLock) {
+        previous = snapshot;
+        snapshot = next;
+        allApps = combinedApps();
+      }
+      AppsChangedEvent changes =
+          AppsChangedEvent.between(collectorName, previous.appsByKey(), next.appsByKey());
+      if (!changes.isEmpty()) {
+        logger.debug(
+            "Argo applications of cluster {} changed: {} added, {} updated, {} removed",
+            cluster.name(),
+            changes.added().size(),
+            changes.updated().size(),
+            changes.removed().size());
+        eventPublisher.publishEvent(changes);
+      }
+    }
+  }
+
+  /**
+   * The collected apps, keyed by Application uid so single Applications can be replaced.
+   *
+   * @param appsByKey the apps by Application uid.
+   * @param resourceVersions the resourceVersion each app was built from, by Application uid.
+   * @param apps the same apps, as handed out to readers.
+   */
+  private record AppsSnapshot(
+      Map<String, App> appsByKey, Map<String, String> resourceVersions, Set<App> apps) {
+    static final AppsSnapshot EMPTY = new AppsSnapshot(Map.of(), Map.of());
+
+    AppsSnapshot(Map<String, App> appsByKey, Map<String, String> resourceVersions) {
+      this(
+          Map.copyOf(appsByKey),
+          // Map.copyOf rejects null values, objects without a resourceVersion are never reused
+          resourceVersions.entrySet().stream()
+              .filter(entry -> entry.getValue() != null)
+              .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue)),
+          Set.copyOf(appsByKey.values()));
+    }
+
+    int size() {
+      return appsByKey.size();
+    }
   }
 }
@@ -1,15 +1,32 @@
 /* (C)2025 */
 package net.joostvdg.kube_app_version.collectors.argo;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 @Component
 @ConfigurationProperties(prefix = "argo.collector")
 public class ArgoCollectorConfig {
+
+  public enum CollectionMode {
+    POLL, // List all Applications on startup and on every scheduled run
+    INFORMER // Keep a local copy of all Applications up to date through a watch
+  }
+
   private boolean runOnStartup = true;
   private boolean scheduledCollectionEnabled = true;
   private int collectionIntervalMinutes = 15;
+  private CollectionMode mode = CollectionMode.POLL;
+  private int listPageSize = 500;
+  private List<String> namespaces = new ArrayList<>(); // empty collects from all namespaces
+  private String labelSelector;
+  private String fieldSelector;
+  private int conversionParallelism = 0; // 0 uses all available processors, 1 converts sequentially
+  private long informerResyncMinutes = 0; // 0 disables periodic resync
+  private long informerSyncTimeoutSeconds = 120;
+  private long rebuildDelayMillis = 1000; // Informer events within this delay are handled together
 
   // Getters and setters
   public boolean isRunOnStartup() {
@@ -35,4 +52,76 @@ public class ArgoCollectorConfig {
   public void setCollectionIntervalMinutes(int collectionIntervalMinutes) {
     this.collectionIntervalMinutes = collectionIntervalMinutes;
   }
+
+  public CollectionMode getMode() {
+    return mode;
+  }
+
+  public void setMode(CollectionMode mode) {
+    this.mode = mode;
+  }
+
+  public long getInformerResyncMinutes() {
+    return informerResyncMinutes;
+  }
+
+  public void setInformerResyncMinutes(long informerResyncMinutes) {
+    this.informerResyncMinutes = informerResyncMinutes;
+  }
+
+  public long getInformerSyncTimeoutSeconds() {
+    return informerSyncTimeoutSeconds;
+  }
+
+  public void setInformerSyncTimeoutSeconds(long informerSyncTimeoutSeconds) {
+    this.informerSyncTimeoutSeconds = informerSyncTimeoutSeconds;
+  }
+
+  public long getRebuildDelayMillis() {
+    return rebuildDelayMillis;
+  }
+
+  public void setRebuildDelayMillis(long rebuildDelayMillis) {
+    this.rebuildDelayMillis = rebuildDelayMillis;
+  }
+
+  public int getListPageSize() {
+    return listPageSize;
+  }
+
+  public void setListPageSize(int listPageSize) {
+    this.listPageSize = listPageSize;
+  }
+
+  public int getConversionParallelism() {
+    return conversionParallelism;
+  }
+
+  public void setConversionParallelism(int conversionParallelism) {
+    this.conversionParallelism = conversionParallelism;
+  }
+
+  public List<String> getNamespaces() {
+    return namespaces;
+  }
+
+  public void setNamespaces(List<String> namespaces) {
+    this.namespaces = namespaces;
+  }
+
+  public String getLabelSelector() {
+    return labelSelector;
+  }
+
+  public void setLabelSelector(String labelSelector) {
+    this.labelSelector = labelSelector;
+  }
+
+  public String getFieldSelector() {
+    return fieldSelector;
+  }
+
+  public void setFieldSelector(String fieldSelector) {
+    this.fieldSelector = fieldSelector;
+  }
 }
@@ -0,0 +1,140 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.collectors.flux;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import net.joostvdg.kube_app_version.api.model.App;
+import net.joostvdg.kube_app_version.api.model.AppArtifact;
+import net.joostvdg.kube_app_version.api.model.AppVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Converts a HelmRelease and the source of its chart to an app. The artifacts are shaped like the
+ * ones of the Argo collector, so the same version fetchers apply: Helm charts are recorded as the
+ * repository URL with the chart name, charts from Git as the repository URL with the chart path.
+ */
+class FluxAppConverter {
+
+  private static final Logger logger = LoggerFactory.getLogger(FluxAppConverter.class);
+  private static final String AMSTERDAM_ZONE_ID = "Europe/Amsterdam";
+
+  /** Finds a source object by kind, namespace and name, returning null if it is not known. */
+  @FunctionalInterface
+  interface SourceLookup {
+    FluxSource find(String kind, String namespace, String name);
+  }
+
+  /** Returns the source the release's chart comes from, or null if it is unknown. */
+  FluxSource sourceOf(HelmRelease release, SourceLookup lookup) {
+    HelmRelease.Reference reference = release.getSourceReference();
+    if (reference == null || reference.getKind() == null || reference.getName() == null) {
+      return null;
+    }
+    String namespace =
+        reference.getNamespace() != null
+            ? reference.getNamespace()
+            : release.getMetadata().getNamespace();
+    return lookup.find(reference.getKind(), namespace, reference.getName());
+  }
+
+  App toApp(HelmRelease release, FluxSource source, String clusterName) {
+    String appName = release.getMetadata().getName();
+    App app = new App();
+    app.setId(
+        release.getMetadata().getUid() != null
+            ? release.getMetadata().getUid()
+            : release.getMetadata().getNamespace() + "/" + appName);
+    app.setName(appName);
+    app.setCluster(clusterName);
+    Map<String, String> labels = release.getMetadata().getLabels();
+    app.setLabels(labels != null ? new HashMap<>(labels) : new HashMap<>());
+    OffsetDateTime creationTimestamp = release.getMetadata().getCreationTimestamp();
+    app.setFirstSeen(creationTimestamp != null ? creationTimestamp.toLocalDateTime() : now());
+    app.setLastSeen(now());
+
+    AppVersion currentVersion = new AppVersion();
+    currentVersion.setDiscoveredAt(now());
+    currentVersion.setLabels(new HashMap<>(app.getLabels()));
+    currentVersion.setVersion(currentVersion(release, source));
+    Set<AppArtifact> artifacts = artifacts(release, source, appName);
+    currentVersion.setArtifacts(artifacts);
+
+    for (AppArtifact artifact : artifacts) {
+      if ("helm".equals(artifact.getArtifactType())
+          && !appName.equals(artifact.getArtifactName())) {
+        app.addArtifactNameMapping("helm", artifact.getArtifactName());
+      }
+    }
+
+    Set<AppVersion> appVersions = new HashSet<>();
+    appVersions.add(currentVersion);
+    app.setVersions(appVersions);
+    app.setCurrentVersion(currentVersion);
+    return app;
+  }
+
+  /**
+   * The deployed chart version: the latest release in the status history, or else the last
+   * attempted one, the tag of an OCIRepository, or the version of the chart template.
+   */
+  private String currentVersion(HelmRelease release, FluxSource source) {
+    HelmRelease.Status status = release.getStatus();
+    if (status != null && status.getDeployedChartVersion() != null) {
+      return status.getDeployedChartVersion();
+    }
+    if (status != null && status.getLastAttemptedRevision() != null) {
+      return status.getLastAttemptedRevision();
+    }
+    if (source instanceof FluxSource.OCIRepository && source.getRefTag() != null) {
+      return source.getRefTag();
+    }
+    if (release.getSpec() != null && release.getSpec().getChartVersion() != null) {
+      return release.getSpec().getChartVersion();
+    }
+    return "unknown";
+  }
+
+  private Set<AppArtifact> artifacts(HelmRelease release, FluxSource source, String appName) {
+    Set<AppArtifact> artifacts = new HashSet<>();
+    if (source == null || source.getUrl() == null) {
+      logger.debug("Source of Flux HelmRelease {} is not known (yet)", appName);
+      return artifacts;
+    }
+    String chartName = release.getSpec() != null ? release.getSpec().getChartName() : null;
+
+    if (source instanceof FluxSource.OCIRepository) {
+      // The URL points at the chart itself, e.g. oci://ghcr.io/stefanprodan/charts/podinfo
+      String url = source.getUrl();
+      int slashIndex = url.lastIndexOf('/');
+      if (slashIndex <= "oci://".length()) {
+        logger.debug("Unexpected OCIRepository URL {} of HelmRelease {}", url, appName);
+        return artifacts;
+      }
+      String ociChartName = url.substring(slashIndex + 1);
+      AppArtifact artifact = new AppArtifact(url.substring(0, slashIndex), "helm", ociChartName);
+      artifact.addMetadata("chart", ociChartName);
+      artifacts.add(artifact);
+    } else if (source instanceof FluxSource.HelmRepository && chartName != null) {
+      AppArtifact artifact = new AppArtifact(source.getUrl(), "helm", chartName);
+      artifact.addMetadata("chart", chartName);
+      artifacts.add(artifact);
+    } else if (source instanceof FluxSource.GitRepository) {
+      AppArtifact artifact = new AppArtifact(source.getUrl(), "git", appName);
+      if (chartName != null && !chartName.isEmpty() && !"/".equals(chartName)) {
+        artifact.addMetadata("path", chartName);
+      }
+      artifacts.add(artifact);
+    }
+    return artifacts;
+  }
+
+  private static LocalDateTime now() {
+    return LocalDateTime.now(ZoneId.of(AMSTERDAM_ZONE_ID));
+  }
+}
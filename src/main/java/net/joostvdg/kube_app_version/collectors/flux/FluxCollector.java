@@ -0,0 +1,308 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.collectors.flux;
+
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.SharedInformerFactory;
+import io.kubernetes.client.util.generic.GenericKubernetesApi;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import net.joostvdg.kube_app_version.api.model.App;
+import net.joostvdg.kube_app_version.collectors.ApplicationCollector;
+import net.joostvdg.kube_app_version.collectors.AppsChangedEvent;
+import net.joostvdg.kube_app_version.config.KubernetesClusters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+/**
+ * Collects the HelmReleases of Flux, together with the HelmRepository, OCIRepository or
+ * GitRepository their chart comes from. All four kinds are followed through informers; after a
+ * change the apps are rebuilt from the informer caches, reusing the app of every HelmRelease whose
+ * own and source's resourceVersion did not change.
+ */
+@Service
+@ConditionalOnProperty(prefix = "flux.collector", name = "enabled", havingValue = "true")
+public class FluxCollector implements ApplicationCollector {
+
+  private static final Logger logger = LoggerFactory.getLogger(FluxCollector.class);
+  private static final String COLLECTOR_NAME = "flux";
+  private static final String HELM_GROUP = "helm.toolkit.fluxcd.io";
+  private static final String SOURCE_GROUP = "source.toolkit.fluxcd.io";
+  // All apps of all clusters, replaced as a whole so readers never see a partial collection
+  private volatile Set<App> allApps = Set.of();
+  private final Object writeLock = new Object();
+  private final FluxCollectorConfig config;
+  private final ApplicationEventPublisher eventPublisher;
+  private final FluxAppConverter converter = new FluxAppConverter();
+  private final List<ClusterCollection> collections;
+  private final ScheduledExecutorService rebuildScheduler;
+
+  public FluxCollector(
+      KubernetesClusters kubernetesClusters,
+      FluxCollectorConfig config,
+      ApplicationEventPublisher eventPublisher) {
+    this.config = config;
+    this.eventPublisher = eventPublisher;
+    this.collections = kubernetesClusters.clusters().stream().map(ClusterCollection::new).toList();
+    this.rebuildScheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("flux-collector").daemon().factory());
+  }
+
+  @PostConstruct
+  private void init() {
+    logger.info("Initializing Flux Collector for {} clusters", collections.size());
+    collections.forEach(ClusterCollection::startInformers);
+    if (config.isRunOnStartup()) {
+      collections.forEach(ClusterCollection::waitForInitialSync);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    collections.forEach(ClusterCollection::stopInformers);
+    rebuildScheduler.shutdownNow();
+  }
+
+  @Override
+  public Set<App> getCollectedApplications() {
+    return allApps;
+  }
+
+  private Set<App> combinedApps() {
+    if (collections.size() == 1) {
+      return collections.get(0).snapshot.apps();
+    }
+    Set<App> combined = new HashSet<>();
+    collections.forEach(collection -> combined.addAll(collection.snapshot.apps()));
+    return Collections.unmodifiableSet(combined);
+  }
+
+  private static String appKey(HelmRelease release) {
+    String uid = release.getMetadata().getUid();
+    return uid != null
+        ? uid
+        : release.getMetadata().getNamespace() + "/" + release.getMetadata().getName();
+  }
+
+  private static String resourceVersion(FluxObject fluxObject) {
+    return fluxObject.getMetadata() != null ? fluxObject.getMetadata().getResourceVersion() : null;
+  }
+
+  /** The Flux objects of one cluster and the apps built from them. */
+  private final class ClusterCollection {
+    private final KubernetesClusters.Cluster cluster;
+    private final String collectorName;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private volatile FluxSnapshot snapshot = FluxSnapshot.EMPTY;
+    private SharedInformerFactory informerFactory;
+    private SharedIndexInformer<HelmRelease> helmReleases;
+    private SharedIndexInformer<FluxSource.HelmRepository> helmRepositories;
+    private SharedIndexInformer<FluxSource.OCIRepository> ociRepositories;
+    private SharedIndexInformer<FluxSource.GitRepository> gitRepositories;
+
+    ClusterCollection(KubernetesClusters.Cluster cluster) {
+      this.cluster = cluster;
+      this.collectorName = COLLECTOR_NAME + "/" + cluster.name();
+    }
+
+    void startInformers() {
+      informerFactory = new SharedInformerFactory(cluster.apiClient());
+      helmReleases =
+          informer(
+              HelmRelease.class,
+              FluxList.HelmReleases.class,
+              HELM_GROUP,
+              config.getHelmReleaseApiVersion(),
+              "helmreleases");
+      helmRepositories =
+          informer(
+              FluxSource.HelmRepository.class,
+              FluxList.HelmRepositories.class,
+              SOURCE_GROUP,
+              config.getSourceApiVersion(),
+              "helmrepositories");
+      ociRepositories =
+          informer(
+              FluxSource.OCIRepository.class,
+              FluxList.OCIRepositories.class,
+              SOURCE_GROUP,
+              config.getOciRepositoryApiVersion(),
+              "ocirepositories");
+      gitRepositories =
+          informer(
+              FluxSource.GitRepository.class,
+              FluxList.GitRepositories.class,
+              SOURCE_GROUP,
+              config.getSourceApiVersion(),
+              "gitrepositories");
+      logger.info("Starting Flux informers for cluster {}", cluster.name());
+      informerFactory.startAllRegisteredInformers();
+    }
+
+    void stopInformers() {
+      if (informerFactory != null) {
+        logger.info("Stopping Flux informers for cluster {}", cluster.name());
+        informerFactory.stopAllRegisteredInformers();
+      }
+    }
+
+    private <T extends FluxObject, L extends FluxList<T>> SharedIndexInformer<T> informer(
+        Class<T> type, Class<L> listType, String group, String version, String plural) {
+      SharedIndexInformer<T> informer =
+          informerFactory.sharedIndexInformerFor(
+              new GenericKubernetesApi<>(
+                  type, listType, group, version, plural, cluster.apiClient()),
+              type,
+              TimeUnit.MINUTES.toMillis(config.getInformerResyncMinutes()));
+      informer.addEventHandler(
+          new ResourceEventHandler<>() {
+            @Override
+            public void onAdd(T fluxObject) {
+              scheduleRebuild();
+            }
+
+            @Override
+            public void onUpdate(T oldObject, T newObject) {
+              scheduleRebuild();
+            }
+
+            @Override
+            public void onDelete(T fluxObject, boolean finalStateUnknown) {
+              scheduleRebuild();
+            }
+          });
+      return informer;
+    }
+
+    void waitForInitialSync() {
+      long deadline =
+          System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getInformerSyncTimeoutSeconds());
+      try {
+        while (!(helmReleases.hasSynced()
+            && helmRepositories.hasSynced()
+            && ociRepositories.hasSynced()
+            && gitRepositories.hasSynced())) {
+          if (System.nanoTime() > deadline) {
+            logger.warn(
+                "Flux informers for cluster {} did not sync within {} seconds, continuing in the"
+                    + " background",
+                cluster.name(),
+                config.getInformerSyncTimeoutSeconds());
+            return;
+          }
+          Thread.sleep(100);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      rebuild();
+      logger.info(
+          "Flux informers for cluster {} synced. Total found: {}",
+          cluster.name(),
+          snapshot.appsByKey().size());
+    }
+
+    /**
+     * Rebuilds the apps shortly after a change, so that a burst of changes, such as the initial
+     * list of all four kinds, is handled at once.
+     */
+    private void scheduleRebuild() {
+      if (rebuildScheduled.compareAndSet(false, true)) {
+        ScheduledFuture<?> unused =
+            rebuildScheduler.schedule(
+                this::rebuild, config.getRebuildDelayMillis(), TimeUnit.MILLISECONDS);
+      }
+    }
+
+    private synchronized void rebuild() {
+      rebuildScheduled.set(false);
+      try {
+        FluxSnapshot previous = snapshot;
+        Map<String, App> apps = new HashMap<>();
+        Map<String, String> fingerprints = new HashMap<>();
+        for (HelmRelease release : helmReleases.getIndexer().list()) {
+          String key = appKey(release);
+          FluxSource source = converter.sourceOf(release, this::findSource);
+          String fingerprint =
+              resourceVersion(release) + "|" + (source != null ? resourceVersion(source) : "");
+          App app =
+              fingerprint.equals(previous.fingerprints().get(key))
+                  ? previous.appsByKey().get(key)
+                  : converter.toApp(release, source, cluster.name());
+          apps.put(key, app);
+          fingerprints.put(key, fingerprint);
+        }
+        publish(new FluxSnapshot(apps, fingerprints));
+      } catch (RuntimeException e) {
+        logger.error(
+            "Failed to rebuild the Flux apps of cluster {}, keeping {} previously collected apps:"
+                + " {}",
+            cluster.name(),
+            snapshot.appsByKey().size(),
+            e.getMessage(),
+            e);
+      }
+    }
+
+    private FluxSource findSource(String kind, String namespace, String name) {
+      SharedIndexInformer<? extends FluxSource> informer =
+          switch (kind) {
+            case "HelmRepository" -> helmRepositories;
+            case "OCIRepository" -> ociRepositories;
+            case "GitRepository" -> gitRepositories;
+            default -> null;
+          };
+      // Informer caches are keyed by namespace/name
+      return informer != null ? informer.getIndexer().getByKey(namespace + "/" + name) : null;
+    }
+
+    /** Makes the snapshot visible to readers and announces what changed. */
+    private void publish(FluxSnapshot next) {
+      FluxSnapshot previous;
+      synchronized (writeLock) {
+        previous = snapshot;
+        snapshot = next;
+        allApps = combinedApps();
+      }
+      AppsChangedEvent changes =
+          AppsChangedEvent.between(collectorName, previous.appsByKey(), next.appsByKey());
+      if (!changes.isEmpty()) {
+        logger.debug(
+            "Flux apps of cluster {} changed: {} added, {} updated, {} removed",
+            cluster.name(),
+            changes.added().size(),
+            changes.updated().size(),
+            changes.removed().size());
+        eventPublisher.publishEvent(changes);
+      }
+    }
+  }
+
+  /**
+   * The apps of a cluster, keyed by HelmRelease uid.
+   *
+   * @param appsByKey the apps by HelmRelease uid.
+   * @param fingerprints the resourceVersions of the HelmRelease and its source each app was built
+   *     from, by HelmRelease uid.
+   * @param apps the same apps, as handed out to readers.
+   */
+  private record FluxSnapshot(
+      Map<String, App> appsByKey, Map<String, String> fingerprints, Set<App> apps) {
+    static final FluxSnapshot EMPTY = new FluxSnapshot(Map.of(), Map.of());
+
+    FluxSnapshot(Map<String, App> appsByKey, Map<String, String> fingerprints) {
+      this(Map.copyOf(appsByKey), Map.copyOf(fingerprints), Set.copyOf(appsByKey.values()));
+    }
+  }
+}
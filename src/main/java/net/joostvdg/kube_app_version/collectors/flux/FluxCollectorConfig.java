@@ -0,0 +1,84 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.collectors.flux;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "flux.collector")
+public class FluxCollectorConfig {
+
+  private boolean enabled = false;
+  private boolean runOnStartup = true;
+  private String helmReleaseApiVersion = "v2";
+  private String sourceApiVersion = "v1";
+  private String ociRepositoryApiVersion = "v1beta2";
+  private long informerResyncMinutes = 0; // 0 disables periodic resync
+  private long informerSyncTimeoutSeconds = 120;
+  private long rebuildDelayMillis = 1000; // Changes within this delay are handled together
+
+  // Getters and setters
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public boolean isRunOnStartup() {
+    return runOnStartup;
+  }
+
+  public void setRunOnStartup(boolean runOnStartup) {
+    this.runOnStartup = runOnStartup;
+  }
+
+  public String getHelmReleaseApiVersion() {
+    return helmReleaseApiVersion;
+  }
+
+  public void setHelmReleaseApiVersion(String helmReleaseApiVersion) {
+    this.helmReleaseApiVersion = helmReleaseApiVersion;
+  }
+
+  public String getSourceApiVersion() {
+    return sourceApiVersion;
+  }
+
+  public void setSourceApiVersion(String sourceApiVersion) {
+    this.sourceApiVersion = sourceApiVersion;
+  }
+
+  public String getOciRepositoryApiVersion() {
+    return ociRepositoryApiVersion;
+  }
+
+  public void setOciRepositoryApiVersion(String ociRepositoryApiVersion) {
+    this.ociRepositoryApiVersion = ociRepositoryApiVersion;
+  }
+
+  public long getInformerResyncMinutes() {
+    return informerResyncMinutes;
+  }
+
+  public void setInformerResyncMinutes(long informerResyncMinutes) {
+    this.informerResyncMinutes = informerResyncMinutes;
+  }
+
+  public long getInformerSyncTimeoutSeconds() {
+    return informerSyncTimeoutSeconds;
+  }
+
+  public void setInformerSyncTimeoutSeconds(long informerSyncTimeoutSeconds) {
+    this.informerSyncTimeoutSeconds = informerSyncTimeoutSeconds;
+  }
+
+  public long getRebuildDelayMillis() {
+    return rebuildDelayMillis;
+  }
+
+  public void setRebuildDelayMillis(long rebuildDelayMillis) {
+    this.rebuildDelayMillis = rebuildDelayMillis;
+  }
+}
@@ -0,0 +1,46 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.collectors.flux;
+
+import io.kubernetes.client.common.KubernetesListObject;
+import io.kubernetes.client.openapi.models.V1ListMeta;
+import java.util.List;
+
+/**
+ * A page of Flux objects as returned by a list request. There is a subclass per kind, so that the
+ * items are deserialized into the right projection.
+ */
+public abstract class FluxList<T extends FluxObject> implements KubernetesListObject {
+
+  private String apiVersion;
+  private String kind;
+  private V1ListMeta metadata;
+  private List<T> items;
+
+  @Override
+  public String getApiVersion() {
+    return apiVersion;
+  }
+
+  @Override
+  public String getKind() {
+    return kind;
+  }
+
+  @Override
+  public V1ListMeta getMetadata() {
+    return metadata;
+  }
+
+  @Override
+  public List<T> getItems() {
+    return items;
+  }
+
+  public static class HelmReleases extends FluxList<HelmRelease> {}
+
+  public static class HelmRepositories extends FluxList<FluxSource.HelmRepository> {}
+
+  public static class OCIRepositories extends FluxList<FluxSource.OCIRepository> {}
+
+  public static class GitRepositories extends FluxList<FluxSource.GitRepository> {}
+}
@@ -0,0 +1,37 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.collectors.flux;
+
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import net.joostvdg.kube_app_version.collectors.ObjectMetadata;
+
+/**
+ * Base of the Flux object projections. Like the Argo Application projection, the objects are
+ * deserialized directly from API responses and only hold the fields the collector reads.
+ */
+public abstract class FluxObject implements KubernetesObject {
+
+  private String apiVersion;
+  private String kind;
+  private ObjectMetadata metadata;
+  // Built on first use, the informers ask for the metadata of every object repeatedly
+  private transient V1ObjectMeta objectMeta;
+
+  @Override
+  public String getApiVersion() {
+    return apiVersion;
+  }
+
+  @Override
+  public String getKind() {
+    return kind;
+  }
+
+  @Override
+  public V1ObjectMeta getMetadata() {
+    if (objectMeta == null && metadata != null) {
+      objectMeta = metadata.toObjectMeta();
+    }
+    return objectMeta;
+  }
+}
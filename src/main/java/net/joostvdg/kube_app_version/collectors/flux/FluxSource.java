@@ -0,0 +1,42 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.collectors.flux;
+
+/**
+ * A projection of a Flux source ({@code source.toolkit.fluxcd.io}). The kinds share the fields the
+ * collector reads, the subclasses only tell them apart, for instance for the informers, which are
+ * registered per type.
+ */
+public class FluxSource extends FluxObject {
+
+  private Spec spec;
+
+  public String getUrl() {
+    return spec != null ? spec.url : null;
+  }
+
+  /** The repository type of a HelmRepository, {@code oci} or {@code default}. */
+  public String getType() {
+    return spec != null ? spec.type : null;
+  }
+
+  /** The tag the source is pinned to, if any. */
+  public String getRefTag() {
+    return spec != null && spec.ref != null ? spec.ref.tag : null;
+  }
+
+  static class Spec {
+    private String url;
+    private String type;
+    private Ref ref;
+  }
+
+  static class Ref {
+    private String tag;
+  }
+
+  public static class HelmRepository extends FluxSource {}
+
+  public static class OCIRepository extends FluxSource {}
+
+  public static class GitRepository extends FluxSource {}
+}
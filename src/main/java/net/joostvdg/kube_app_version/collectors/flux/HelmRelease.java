@@ -0,0 +1,96 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.collectors.flux;
+
+import java.util.List;
+
+/** A projection of a Flux {@code HelmRelease} ({@code helm.toolkit.fluxcd.io}). */
+public class HelmRelease extends FluxObject {
+
+  private Spec spec;
+  private Status status;
+
+  public Spec getSpec() {
+    return spec;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  /**
+   * Returns the reference to the source of the chart: {@code spec.chartRef}, or else the {@code
+   * sourceRef} of the chart template.
+   */
+  public Reference getSourceReference() {
+    if (spec == null) {
+      return null;
+    }
+    if (spec.chartRef != null) {
+      return spec.chartRef;
+    }
+    return spec.chart != null && spec.chart.spec != null ? spec.chart.spec.sourceRef : null;
+  }
+
+  public static class Spec {
+    private Chart chart;
+    private Reference chartRef;
+
+    /** The chart name (or path, for Git sources) of the chart template, if any. */
+    public String getChartName() {
+      return chart != null && chart.spec != null ? chart.spec.chart : null;
+    }
+
+    /** The chart version (or semver range) of the chart template, if any. */
+    public String getChartVersion() {
+      return chart != null && chart.spec != null ? chart.spec.version : null;
+    }
+  }
+
+  static class Chart {
+    private ChartTemplateSpec spec;
+  }
+
+  static class ChartTemplateSpec {
+    private String chart;
+    private String version;
+    private Reference sourceRef;
+  }
+
+  public static class Reference {
+    private String kind;
+    private String name;
+    private String namespace;
+
+    public String getKind() {
+      return kind;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public String getNamespace() {
+      return namespace;
+    }
+  }
+
+  public static class Status {
+    private List<Snapshot> history;
+    private String lastAttemptedRevision;
+
+    /** The chart version of the latest release in the history, if any. */
+    public String getDeployedChartVersion() {
+      return history != null && !history.isEmpty() && history.get(0) != null
+          ? history.get(0).chartVersion
+          : null;
+    }
+
+    public String getLastAttemptedRevision() {
+      return lastAttemptedRevision;
+    }
+  }
+
+  static class Snapshot {
+    private String chartVersion;
+  }
+}
@@ -4,6 +4,7 @@ package net.joostvdg.kube_app_version.config;
 import io.kubernetes.client.openapi.ApiClient;
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.apis.VersionApi;
 import io.kubernetes.client.openapi.models.V1APIResource;
 import io.kubernetes.client.util.ClientBuilder;
 import io.kubernetes.client.util.Config;
@@ -12,7 +13,11 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.health.Health;
@@ -25,26 +30,76 @@ public class KubernetesClientConfig implements HealthIndicator {
 
   private static final Logger logger = LoggerFactory.getLogger(KubernetesClientConfig.class);
   private final KubernetesConfigProperties kubeConfig;
-  private boolean connectionHealthy = false;
+  // Whether the connection to each cluster could be verified, by cluster name
+  private final Map<String, Boolean> connectionHealthy = new ConcurrentHashMap<>();
+  // The clients of the clusters that are collected from, by cluster name
+  private final Map<String, ApiClient> clusterClients = new ConcurrentHashMap<>();
 
   public KubernetesClientConfig(KubernetesConfigProperties kubeConfig) {
     this.kubeConfig = kubeConfig;
   }
 
+  /**
+   * Creates an API client per configured cluster. With a single cluster, a failing connection stops
+   * the application as before. With several clusters, each one is isolated: a cluster whose client
+   * cannot be created is left out, and a cluster that cannot be reached yet keeps its client so
+   * that later collections can retry.
+   */
   @Bean
-  public ApiClient apiClient() throws Exception {
-    ApiClient client =
-        switch (kubeConfig.getMode()) {
-          case IN_CLUSTER -> apiClientFromCluster();
-          case KUBECONFIG -> apiClientFromKubeConfig();
-          case DIRECT -> apiClientDirect();
-        };
+  public KubernetesClusters kubernetesClusters() throws Exception {
+    List<KubernetesConfigProperties.Cluster> targets = kubeConfig.resolveClusters();
+    boolean isolateFailures = targets.size() > 1;
+    List<KubernetesClusters.Cluster> clusters = new ArrayList<>();
+    for (KubernetesConfigProperties.Cluster target : targets) {
+      ApiClient client;
+      try {
+        client = apiClient(target);
+      } catch (Exception e) {
+        if (!isolateFailures) {
+          throw e;
+        }
+        logger.error(
+            "Failed to create a Kubernetes API client for cluster {}, skipping it: {}",
+            target.getName(),
+            e.getMessage(),
+            e);
+        connectionHealthy.put(target.getName(), false);
+        continue;
+      }
+      try {
+        verifyConnection(target.getName(), client);
+      } catch (RuntimeException e) {
+        if (!isolateFailures) {
+          throw e;
+        }
+      }
+      clusterClients.put(target.getName(), client);
+      clusters.add(
+          new KubernetesClusters.Cluster(
+              target.getName(), client, target.getCollectionIntervalMinutes()));
+    }
+    if (clusters.isEmpty()) {
+      throw new IllegalStateException("None of the configured Kubernetes clusters is usable");
+    }
+    return new KubernetesClusters(clusters);
+  }
 
+  /** The client of the first configured cluster. */
+  @Bean
+  public ApiClient apiClient(KubernetesClusters kubernetesClusters) {
+    ApiClient client = kubernetesClusters.clusters().get(0).apiClient();
     io.kubernetes.client.openapi.Configuration.setDefaultApiClient(client);
-    verifyConnection(client);
     return client;
   }
 
+  private ApiClient apiClient(KubernetesConfigProperties.Cluster cluster) throws IOException {
+    return switch (cluster.getMode()) {
+      case IN_CLUSTER -> apiClientFromCluster();
+      case KUBECONFIG -> apiClientFromKubeConfig(cluster);
+      case DIRECT -> apiClientDirect(cluster);
+    };
+  }
+
   private ApiClient apiClientFromCluster() throws IOException {
     //    String host = System.getenv("KUBERNETES_SERVICE_HOST");
     //    String port = System.getenv("KUBERNETES_SERVICE_PORT");
@@ -58,14 +113,15 @@ public class KubernetesClientConfig implements HealthIndicator {
     return Config.defaultClient();
   }
 
-  private ApiClient apiClientFromKubeConfig() throws IOException {
+  private ApiClient apiClientFromKubeConfig(KubernetesConfigProperties.Cluster cluster)
+      throws IOException {
     logger.info(
-        "Using kubeconfig file: {} with context: {}",
-        this.kubeConfig.getKubeconfigPath(),
-        this.kubeConfig.getContextName());
+        "Using kubeconfig file: {} with context: {} for cluster: {}",
+        cluster.getKubeconfigPath(),
+        cluster.getContextName(),
+        cluster.getName());
 
-    if (this.kubeConfig.getKubeconfigPath() == null
-        || this.kubeConfig.getKubeconfigPath().isEmpty()) {
+    if (cluster.getKubeconfigPath() == null || cluster.getKubeconfigPath().isEmpty()) {
       throw new IllegalArgumentException(
           "Kubeconfig path must be provided when using KUBECONFIG mode");
     }
@@ -73,45 +129,60 @@ public class KubernetesClientConfig implements HealthIndicator {
     KubeConfig kc =
         KubeConfig.loadKubeConfig(
             Files.newBufferedReader(
-                Paths.get(this.kubeConfig.getKubeconfigPath()), Charset.defaultCharset()));
-    if (this.kubeConfig.getContextName() != null && !this.kubeConfig.getContextName().isEmpty()) {
-      kc.setContext(this.kubeConfig.getContextName());
+                Paths.get(cluster.getKubeconfigPath()), Charset.defaultCharset()));
+    if (cluster.getContextName() != null && !cluster.getContextName().isEmpty()) {
+      kc.setContext(cluster.getContextName());
     }
     return ClientBuilder.kubeconfig(kc).build();
   }
 
-  private ApiClient apiClientDirect() throws IOException {
+  private ApiClient apiClientDirect(KubernetesConfigProperties.Cluster cluster) throws IOException {
     logger.info(
         "Using direct Kubernetes connection to cluster: {} at endpoint: {}",
-        this.kubeConfig.getClusterName(),
-        this.kubeConfig.getClusterEndpoint());
+        cluster.getName(),
+        cluster.getClusterEndpoint());
 
-    if (this.kubeConfig.getClusterEndpoint() == null
-        || this.kubeConfig.getClusterEndpoint().isEmpty()) {
+    if (cluster.getClusterEndpoint() == null || cluster.getClusterEndpoint().isEmpty()) {
       throw new IllegalArgumentException(
           "Cluster endpoint must be provided when using DIRECT mode");
     }
 
-    return ClientBuilder.standard()
-        .setBasePath("https://" + this.kubeConfig.getClusterEndpoint())
-        .build();
+    return ClientBuilder.standard().setBasePath("https://" + cluster.getClusterEndpoint()).build();
   }
 
-  private void verifyConnection(ApiClient client) {
+  private void verifyConnection(String clusterName, ApiClient client) {
     CoreV1Api api = new CoreV1Api(client);
     List<V1APIResource> testResources = null;
     try {
       testResources = api.getAPIResources().execute().getResources();
     } catch (ApiException e) {
-      logger.error("Failed to verify Kubernetes API connection: {}", e.getMessage(), e);
+      logger.error(
+          "Failed to verify Kubernetes API connection to cluster {}: {}",
+          clusterName,
+          e.getMessage(),
+          e);
+      connectionHealthy.put(clusterName, false);
       throw new RuntimeException(e);
     }
     if (testResources.isEmpty()) {
-      logger.warn("Was not able to collect any resources from the Kubernetes API.");
+      logger.warn(
+          "Was not able to collect any resources from the Kubernetes API of cluster {}.",
+          clusterName);
     }
 
-    connectionHealthy = true;
-    logger.info("Successfully verified Kubernetes API connection");
+    connectionHealthy.put(clusterName, true);
+    logger.info("Successfully verified Kubernetes API connection to cluster {}", clusterName);
+  }
+
+  private boolean isReachable(String clusterName, ApiClient client) {
+    try {
+      new VersionApi(client).getCode().execute();
+      return true;
+    } catch (ApiException | RuntimeException e) {
+      logger.debug(
+          "Kubernetes API of cluster {} is not reachable: {}", clusterName, e.getMessage());
+      return false;
+    }
   }
 
   @Bean
@@ -119,10 +190,17 @@ public class KubernetesClientConfig implements HealthIndicator {
     return new CoreV1Api(apiClient);
   }
 
+  /**
+   * Probes the API server of every cluster. Up while at least one cluster is reachable, with the
+   * state of every cluster as detail.
+   */
   @Override
   public Health health() {
-    return connectionHealthy
-        ? Health.up().withDetail("mode", kubeConfig.getMode()).build()
-        : Health.down().withDetail("mode", kubeConfig.getMode()).build();
+    clusterClients.forEach(
+        (name, client) -> connectionHealthy.put(name, isReachable(name, client)));
+    Map<String, String> clusters = new TreeMap<>();
+    connectionHealthy.forEach((name, healthy) -> clusters.put(name, healthy ? "UP" : "DOWN"));
+    Health.Builder health = connectionHealthy.containsValue(true) ? Health.up() : Health.down();
+    return health.withDetail("mode", kubeConfig.getMode()).withDetail("clusters", clusters).build();
   }
 }
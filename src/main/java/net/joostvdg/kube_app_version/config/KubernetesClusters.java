@@ -0,0 +1,25 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.config;
+
+import io.kubernetes.client.openapi.ApiClient;
+import java.util.List;
+
+/**
+ * The clusters to collect applications from, each with its own API client, in the configured order.
+ */
+public record KubernetesClusters(List<Cluster> clusters) {
+
+  public KubernetesClusters {
+    clusters = List.copyOf(clusters);
+  }
+
+  /**
+   * A cluster and its API client.
+   *
+   * @param name the cluster name, which collected apps are tagged with.
+   * @param apiClient the client for the cluster's API server.
+   * @param collectionIntervalMinutes the collection interval for this cluster, or null to use the
+   *     interval of the collector.
+   */
+  public record Cluster(String name, ApiClient apiClient, Integer collectionIntervalMinutes) {}
+}
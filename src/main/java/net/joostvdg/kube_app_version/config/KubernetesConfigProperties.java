@@ -1,6 +1,10 @@
 /* (C)2025 */
 package net.joostvdg.kube_app_version.config;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -13,6 +17,7 @@ public class KubernetesConfigProperties {
   private String contextName;
   private String clusterName = "local";
   private String clusterEndpoint = "127.0.0.1:443";
+  private List<Cluster> clusters = new ArrayList<>();
 
   public enum Mode {
     IN_CLUSTER, // Use in-cluster configuration
@@ -59,4 +64,111 @@ public class KubernetesConfigProperties {
   public void setClusterEndpoint(String clusterEndpoint) {
     this.clusterEndpoint = clusterEndpoint;
   }
+
+  public List<Cluster> getClusters() {
+    return clusters;
+  }
+
+  public void setClusters(List<Cluster> clusters) {
+    this.clusters = clusters;
+  }
+
+  /**
+   * Returns the clusters to collect from. Without a list of clusters, the top-level settings
+   * describe the single cluster. Settings a listed cluster leaves out fall back to the top-level
+   * ones.
+   */
+  public List<Cluster> resolveClusters() {
+    if (clusters == null || clusters.isEmpty()) {
+      Cluster cluster = new Cluster();
+      cluster.setName(clusterName);
+      return List.of(withDefaults(cluster));
+    }
+    Set<String> names = new HashSet<>();
+    List<Cluster> resolved = new ArrayList<>();
+    for (Cluster cluster : clusters) {
+      if (cluster.getName() == null || cluster.getName().isBlank()) {
+        throw new IllegalArgumentException("Every entry of app.kubernetes.clusters needs a name");
+      }
+      if (!names.add(cluster.getName())) {
+        throw new IllegalArgumentException(
+            "Cluster name " + cluster.getName() + " is used more than once");
+      }
+      resolved.add(withDefaults(cluster));
+    }
+    return List.copyOf(resolved);
+  }
+
+  private Cluster withDefaults(Cluster cluster) {
+    Cluster resolved = new Cluster();
+    resolved.setName(cluster.getName());
+    resolved.setMode(cluster.getMode() != null ? cluster.getMode() : mode);
+    resolved.setKubeconfigPath(
+        cluster.getKubeconfigPath() != null ? cluster.getKubeconfigPath() : kubeconfigPath);
+    resolved.setContextName(
+        cluster.getContextName() != null ? cluster.getContextName() : contextName);
+    resolved.setClusterEndpoint(
+        cluster.getClusterEndpoint() != null ? cluster.getClusterEndpoint() : clusterEndpoint);
+    resolved.setCollectionIntervalMinutes(cluster.getCollectionIntervalMinutes());
+    return resolved;
+  }
+
+  /** A cluster to collect applications from. */
+  public static class Cluster {
+
+    private String name;
+    private Mode mode;
+    private String kubeconfigPath;
+    private String contextName;
+    private String clusterEndpoint;
+    private Integer collectionIntervalMinutes; // null uses the interval of the collector
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public Mode getMode() {
+      return mode;
+    }
+
+    public void setMode(Mode mode) {
+      this.mode = mode;
+    }
+
+    public String getKubeconfigPath() {
+      return kubeconfigPath;
+    }
+
+    public void setKubeconfigPath(String kubeconfigPath) {
+      this.kubeconfigPath = kubeconfigPath;
+    }
+
+    public String getContextName() {
+      return contextName;
+    }
+
+    public void setContextName(String contextName) {
+      this.contextName = contextName;
+    }
+
+    public String getClusterEndpoint() {
+      return clusterEndpoint;
+    }
+
+    public void setClusterEndpoint(String clusterEndpoint) {
+      this.clusterEndpoint = clusterEndpoint;
+    }
+
+    public Integer getCollectionIntervalMinutes() {
+      return collectionIntervalMinutes;
+    }
+
+    public void setCollectionIntervalMinutes(Integer collectionIntervalMinutes) {
+      this.collectionIntervalMinutes = collectionIntervalMinutes;
+    }
+  }
 }
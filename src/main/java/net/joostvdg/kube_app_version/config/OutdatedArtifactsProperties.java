@@ -1,6 +1,8 @@
 /* (C)2025 */
 package net.joostvdg.kube_app_version.config;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -11,7 +13,19 @@ public class OutdatedArtifactsProperties {
   private boolean collectOnStartup = true;
   private boolean refreshOnStartup = true;
   private long intervalMs = 3600000; // 1 hour
+  private long fullRefreshIntervalMs = 86400000; // 24 hours
   private long cacheValidityMinutes = 60;
+  private long helmIndexCacheTtlMinutes = 60;
+  private long registryCacheTtlMinutes = 60;
+  private int maxConcurrentLookups = 32;
+  private int maxConcurrentLookupsPerRegistry = 4;
+  private long shutdownTimeoutSeconds = 30;
+  private double requestsPerSecondPerHost = 5;
+  private int maxConcurrentRequestsPerHost = 4;
+  private int maxRateLimitRetries = 3;
+  private long maxRateLimitWaitSeconds = 120;
+  private int ociTagsPageSize = 100;
+  private List<String> plainHttpRegistries = new ArrayList<>();
 
   public boolean isCollectOnStartup() {
     return collectOnStartup;
@@ -37,6 +51,14 @@ public class OutdatedArtifactsProperties {
     this.intervalMs = intervalMs;
   }
 
+  public long getFullRefreshIntervalMs() {
+    return fullRefreshIntervalMs;
+  }
+
+  public void setFullRefreshIntervalMs(long fullRefreshIntervalMs) {
+    this.fullRefreshIntervalMs = fullRefreshIntervalMs;
+  }
+
   public long getCacheValidityMinutes() {
     return cacheValidityMinutes;
   }
@@ -44,4 +66,92 @@ public class OutdatedArtifactsProperties {
   public void setCacheValidityMinutes(long cacheValidityMinutes) {
     this.cacheValidityMinutes = cacheValidityMinutes;
   }
+
+  public long getHelmIndexCacheTtlMinutes() {
+    return helmIndexCacheTtlMinutes;
+  }
+
+  public void setHelmIndexCacheTtlMinutes(long helmIndexCacheTtlMinutes) {
+    this.helmIndexCacheTtlMinutes = helmIndexCacheTtlMinutes;
+  }
+
+  public long getRegistryCacheTtlMinutes() {
+    return registryCacheTtlMinutes;
+  }
+
+  public void setRegistryCacheTtlMinutes(long registryCacheTtlMinutes) {
+    this.registryCacheTtlMinutes = registryCacheTtlMinutes;
+  }
+
+  public int getMaxConcurrentLookups() {
+    return maxConcurrentLookups;
+  }
+
+  public void setMaxConcurrentLookups(int maxConcurrentLookups) {
+    this.maxConcurrentLookups = maxConcurrentLookups;
+  }
+
+  public int getMaxConcurrentLookupsPerRegistry() {
+    return maxConcurrentLookupsPerRegistry;
+  }
+
+  public void setMaxConcurrentLookupsPerRegistry(int maxConcurrentLookupsPerRegistry) {
+    this.maxConcurrentLookupsPerRegistry = maxConcurrentLookupsPerRegistry;
+  }
+
+  public long getShutdownTimeoutSeconds() {
+    return shutdownTimeoutSeconds;
+  }
+
+  public void setShutdownTimeoutSeconds(long shutdownTimeoutSeconds) {
+    this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
+  }
+
+  public double getRequestsPerSecondPerHost() {
+    return requestsPerSecondPerHost;
+  }
+
+  public void setRequestsPerSecondPerHost(double requestsPerSecondPerHost) {
+    this.requestsPerSecondPerHost = requestsPerSecondPerHost;
+  }
+
+  public int getMaxConcurrentRequestsPerHost() {
+    return maxConcurrentRequestsPerHost;
+  }
+
+  public void setMaxConcurrentRequestsPerHost(int maxConcurrentRequestsPerHost) {
+    this.maxConcurrentRequestsPerHost = maxConcurrentRequestsPerHost;
+  }
+
+  public int getMaxRateLimitRetries() {
+    return maxRateLimitRetries;
+  }
+
+  public void setMaxRateLimitRetries(int maxRateLimitRetries) {
+    this.maxRateLimitRetries = maxRateLimitRetries;
+  }
+
+  public long getMaxRateLimitWaitSeconds() {
+    return maxRateLimitWaitSeconds;
+  }
+
+  public void setMaxRateLimitWaitSeconds(long maxRateLimitWaitSeconds) {
+    this.maxRateLimitWaitSeconds = maxRateLimitWaitSeconds;
+  }
+
+  public int getOciTagsPageSize() {
+    return ociTagsPageSize;
+  }
+
+  public void setOciTagsPageSize(int ociTagsPageSize) {
+    this.ociTagsPageSize = ociTagsPageSize;
+  }
+
+  public List<String> getPlainHttpRegistries() {
+    return plainHttpRegistries;
+  }
+
+  public void setPlainHttpRegistries(List<String> plainHttpRegistries) {
+    this.plainHttpRegistries = plainHttpRegistries;
+  }
 }
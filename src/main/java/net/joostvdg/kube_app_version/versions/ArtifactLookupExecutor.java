@@ -0,0 +1,139 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import net.joostvdg.kube_app_version.api.model.AppArtifact;
+import net.joostvdg.kube_app_version.config.OutdatedArtifactsProperties;
+import net.joostvdg.kube_app_version.versions.image.ImageReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Application-scoped executor for artifact version lookups.
+ *
+ * <p>Every lookup runs on its own virtual thread, but only a bounded number run at the same time:
+ * overall, and per registry, so a refresh cannot flood a single registry. Tasks waiting for a
+ * permit are exposed as the {@code kav.lookup.executor.queued} gauge.
+ */
+@Component
+public class ArtifactLookupExecutor {
+
+  private static final Logger logger = LoggerFactory.getLogger(ArtifactLookupExecutor.class);
+  private final ExecutorService executor =
+      Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("artifact-lookup-", 0).factory());
+  private final OutdatedArtifactsProperties properties;
+  private final Semaphore lookupPermits;
+  private final Map<String, Semaphore> registryPermits = new ConcurrentHashMap<>();
+  private final AtomicInteger queuedTasks = new AtomicInteger();
+  private final AtomicInteger activeTasks = new AtomicInteger();
+
+  public ArtifactLookupExecutor(OutdatedArtifactsProperties properties, MeterRegistry registry) {
+    this.properties = properties;
+    this.lookupPermits = new Semaphore(properties.getMaxConcurrentLookups(), true);
+    Gauge.builder("kav.lookup.executor.queued", queuedTasks, AtomicInteger::get)
+        .description("Artifact lookups waiting for a concurrency permit")
+        .register(registry);
+    Gauge.builder("kav.lookup.executor.active", activeTasks, AtomicInteger::get)
+        .description("Artifact lookups currently running")
+        .register(registry);
+  }
+
+  /**
+   * Runs a lookup for an artifact once a per-registry and then a global permit are available. A
+   * task never holds a global permit while it waits for its registry.
+   *
+   * @param artifact the artifact the task looks up, used to determine its registry.
+   * @param task the lookup to run.
+   * @return a future completing with the result of the task.
+   */
+  public <T> CompletableFuture<T> submit(AppArtifact artifact, Supplier<T> task) {
+    Semaphore perRegistry =
+        registryPermits.computeIfAbsent(
+            registryOf(artifact),
+            registry -> new Semaphore(properties.getMaxConcurrentLookupsPerRegistry(), true));
+    queuedTasks.incrementAndGet();
+    return CompletableFuture.supplyAsync(
+        () -> {
+          boolean dequeued = false;
+          try {
+            // Wait for the registry first, so that lookups queued behind a busy registry do not
+            // hold global permits that lookups for other registries could use
+            perRegistry.acquire();
+            try {
+              lookupPermits.acquire();
+              try {
+                queuedTasks.decrementAndGet();
+                dequeued = true;
+                activeTasks.incrementAndGet();
+                return task.get();
+              } finally {
+                activeTasks.decrementAndGet();
+                lookupPermits.release();
+              }
+            } finally {
+              perRegistry.release();
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+          } finally {
+            if (!dequeued) {
+              queuedTasks.decrementAndGet();
+            }
+          }
+        },
+        executor);
+  }
+
+  /**
+   * Determines the registry (host) an artifact is fetched from, normalized like the host the
+   * fetchers query, so that aliases such as {@code docker.io} share the permits of that host.
+   */
+  static String registryOf(AppArtifact artifact) {
+    String source = artifact.getSource();
+    if (source == null) {
+      return "unknown";
+    }
+    if (source.contains("://")) {
+      try {
+        String host = URI.create(source).getHost();
+        return host != null ? ImageReference.normalizeRegistry(host) : "unknown";
+      } catch (IllegalArgumentException e) {
+        return "unknown";
+      }
+    }
+    // Container image references, such as nginx:1.25 or ghcr.io/org/app:1.0.0
+    return ImageReference.parse(source).map(ImageReference::registry).orElse("unknown");
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(properties.getShutdownTimeoutSeconds(), TimeUnit.SECONDS)) {
+        logger.warn(
+            "Artifact lookups did not finish within {} seconds, cancelling {} running lookups",
+            properties.getShutdownTimeoutSeconds(),
+            activeTasks.get());
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+}
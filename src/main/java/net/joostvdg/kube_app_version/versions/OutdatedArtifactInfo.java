@@ -67,6 +67,11 @@ public class OutdatedArtifactInfo implements Serializable {
   }
 
   private String generateId() {
+    return idFor(appId, artifactSource, artifactType);
+  }
+
+  /** Returns the id under which the result for an artifact of an app is stored. */
+  static String idFor(String appId, String artifactSource, String artifactType) {
     return appId + ":" + artifactSource + ":" + artifactType;
   }
 
@@ -1,27 +1,45 @@
 /* (C)2025 */
 package net.joostvdg.kube_app_version.versions;
 
-import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import net.joostvdg.kube_app_version.api.model.App;
 import net.joostvdg.kube_app_version.api.model.AppArtifact;
 import net.joostvdg.kube_app_version.api.model.AppVersion;
+import net.joostvdg.kube_app_version.collectors.AppsChangedEvent;
 import net.joostvdg.kube_app_version.collectors.CollectorService;
 import net.joostvdg.kube_app_version.config.OutdatedArtifactsProperties;
+import net.joostvdg.kube_app_version.versions.image.ImageReference;
+import net.joostvdg.kube_app_version.versions.image.ImageTagVariant;
 import net.joostvdg.kube_app_version.versions.util.SemanticVersionUtil;
+import net.joostvdg.kube_app_version.versions.util.SingleFlight;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+/**
+ * Determines which artifacts of the collected apps are outdated and keeps the results in the cache.
+ *
+ * <p>The results are maintained incrementally. Apps reported as changed by a collector are
+ * re-evaluated against the versions known from the previous lookup of their artifacts, and the
+ * scheduled refresh only re-evaluates artifacts whose available versions changed upstream. A full
+ * refresh of all artifacts runs every {@code full-refresh-interval-ms} as a consistency backstop.
+ */
 @Service
 public class OutdatedArtifactsService {
 
@@ -31,24 +49,44 @@ public class OutdatedArtifactsService {
   private final AppArtifactRepository appVersionRepository;
   private final OutdatedArtifactInfoRepository outdatedArtifactInfoRepository;
   private final OutdatedArtifactsProperties properties;
+  private final ArtifactLookupExecutor lookupExecutor;
+  private final SingleFlight<String, VersionSet> versionLookups = new SingleFlight<>();
+  // The last fetched versions per artifact source, with the floor version they were fetched from
+  private final Map<String, KnownVersions> knownVersions = new ConcurrentHashMap<>();
+  // The ids of the stored results per app, guarded by the lock of this service
+  private final Map<String, Set<String>> storedResultIds = new HashMap<>();
+  // Serializes refreshes, so that a refresh on startup and a scheduled one do not overlap
+  private final Object refreshLock = new Object();
+  private final ExecutorService changeHandler =
+      Executors.newSingleThreadExecutor(Thread.ofVirtual().name("apps-changed-handler").factory());
+  private volatile Instant lastRefresh;
+  private volatile Instant lastFullRefresh;
 
   public OutdatedArtifactsService(
       CollectorService collectorService,
       List<VersionFetcher> versionFetchers,
       AppArtifactRepository appVersionRepository,
       OutdatedArtifactInfoRepository outdatedArtifactInfoRepository,
-      OutdatedArtifactsProperties properties) {
+      OutdatedArtifactsProperties properties,
+      ArtifactLookupExecutor lookupExecutor) {
     this.collectorService = collectorService;
     this.versionFetchers = versionFetchers;
     this.appVersionRepository = appVersionRepository;
     this.outdatedArtifactInfoRepository = outdatedArtifactInfoRepository;
     this.properties = properties;
+    this.lookupExecutor = lookupExecutor;
     logger.info(
         "OutdatedArtifactsService initialized with {} version fetchers.",
         Optional.of(versionFetchers.size()));
   }
 
-  @PostConstruct
+  /**
+   * Runs once the application is ready rather than when this service is created. Collectors that
+   * complete their initial sync while the context starts publish their changes before event
+   * listeners are registered, so those changes are never delivered and only a refresh from here on
+   * sees their apps.
+   */
+  @EventListener(ApplicationReadyEvent.class)
   public void onStartup() {
     logger.info("OutdatedArtifactsService startup initiated.");
     if (properties.isCollectOnStartup()) {
@@ -78,6 +116,11 @@ public class OutdatedArtifactsService {
   }
 
   private boolean needsRefresh() {
+    Instant refreshed = lastRefresh;
+    if (refreshed != null) {
+      return Duration.between(refreshed, Instant.now()).toMinutes()
+          >= properties.getCacheValidityMinutes();
+    }
     Optional<OutdatedArtifactInfo> latestEntry = findLatestCachedEntry();
     return latestEntry.isEmpty()
         || Duration.between(
@@ -97,11 +140,247 @@ public class OutdatedArtifactsService {
     return all;
   }
 
+  /**
+   * Refreshes the stored results. Runs a full refresh when the last one is older than {@code
+   * full-refresh-interval-ms}, otherwise only re-evaluates the artifacts whose available versions
+   * changed since they were last fetched.
+   */
   @Scheduled(fixedDelayString = "${app.version.outdated-artifacts.interval-ms:3600000}")
   public void refreshOutdatedArtifacts() {
-    List<OutdatedArtifactInfo> outdated = getOutdatedArtifactsParallel();
-    outdated.forEach(info -> info.setTimeToLive(properties.getCacheValidityMinutes() * 60));
-    outdatedArtifactInfoRepository.saveAll(outdated);
+    synchronized (refreshLock) {
+      Instant fullRefreshed = lastFullRefresh;
+      if (fullRefreshed == null
+          || Duration.between(fullRefreshed, Instant.now()).toMillis()
+              >= properties.getFullRefreshIntervalMs()) {
+        fullRefresh();
+      } else {
+        refreshChangedUpstream();
+      }
+      lastRefresh = Instant.now();
+    }
+  }
+
+  private void fullRefresh() {
+    long startTime = System.nanoTime();
+    Map<String, List<ArtifactUsage>> usagesBySource =
+        groupArtifactUsages(collectorService.getAllCollectedApps());
+    List<Evaluation> evaluations = evaluate(usagesBySource, LookupMode.FULL).join();
+    knownVersions.keySet().retainAll(usagesBySource.keySet());
+
+    synchronized (this) {
+      // Apps may have changed while the artifacts were looked up, the collected apps are current
+      Set<String> currentIds = resultIds(collectorService.getAllCollectedApps());
+      // Drop the results of apps and artifacts that no longer exist, and index what is stored
+      storedResultIds.clear();
+      List<String> staleIds = new ArrayList<>();
+      for (OutdatedArtifactInfo stored : fetchFromCache()) {
+        if (currentIds.contains(stored.getId())) {
+          indexResult(stored.getAppId(), stored.getId());
+        } else {
+          staleIds.add(stored.getId());
+        }
+      }
+      if (!staleIds.isEmpty()) {
+        outdatedArtifactInfoRepository.deleteAllById(staleIds);
+      }
+      persist(stillCollected(evaluations, currentIds));
+    }
+    lastFullRefresh = Instant.now();
+    logger.info(
+        "Full refresh of outdated artifacts completed in {} ms, evaluated {} unique artifacts.",
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime),
+        usagesBySource.size());
+  }
+
+  private void refreshChangedUpstream() {
+    long startTime = System.nanoTime();
+    Map<String, List<ArtifactUsage>> usagesBySource =
+        groupArtifactUsages(collectorService.getAllCollectedApps());
+    List<Evaluation> evaluations = evaluate(usagesBySource, LookupMode.CHANGED_UPSTREAM).join();
+    knownVersions.keySet().retainAll(usagesBySource.keySet());
+    synchronized (this) {
+      persist(stillCollected(evaluations, resultIds(collectorService.getAllCollectedApps())));
+    }
+    logger.info(
+        "Checked {} unique artifacts for new upstream versions in {} ms, re-evaluated {} artifact"
+            + " usages.",
+        usagesBySource.size(),
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime),
+        evaluations.size());
+  }
+
+  /** Returns the ids under which the results of the current artifacts of the apps are stored. */
+  private static Set<String> resultIds(Set<App> apps) {
+    Set<String> ids = new HashSet<>();
+    for (App app : apps) {
+      for (AppArtifact artifact : app.getCurrentVersion().getArtifacts()) {
+        ids.add(
+            OutdatedArtifactInfo.idFor(
+                app.getId(), artifact.getSource(), artifact.getArtifactType()));
+      }
+    }
+    return ids;
+  }
+
+  /**
+   * Leaves out the evaluations of artifacts that are no longer collected, such as those of apps
+   * that were removed while their artifacts were looked up.
+   */
+  private static List<Evaluation> stillCollected(
+      List<Evaluation> evaluations, Set<String> currentIds) {
+    return evaluations.stream()
+        .filter(evaluation -> currentIds.contains(resultId(evaluation.usage())))
+        .toList();
+  }
+
+  /**
+   * Hands the apps a collector reports as changed to the change handler thread, so that the
+   * collector publishing the event, such as an informer thread, is not held up.
+   */
+  @EventListener
+  public void onAppsChanged(AppsChangedEvent changes) {
+    try {
+      Future<?> unused = changeHandler.submit(() -> handleAppsChanged(changes));
+    } catch (RejectedExecutionException e) {
+      logger.debug("Ignoring apps changed by collector {} during shutdown", changes.collector());
+    }
+  }
+
+  /**
+   * Re-evaluates the apps a collector reports as added or updated against the already known
+   * versions of their artifacts, and drops the results of removed apps. Changes are handled one
+   * event at a time and in order, so that the results of an event are never overwritten by those of
+   * an earlier one.
+   *
+   * <p>A changed app loses the results of artifacts it no longer deploys. The results of its
+   * current artifacts are only replaced by an evaluation, so they are kept when the lookup of their
+   * versions fails.
+   */
+  void handleAppsChanged(AppsChangedEvent changes) {
+    try {
+      if (!changes.removed().isEmpty()) {
+        deleteResults(changes.removed(), Set.of());
+        forgetUnusedSources(changes.removed());
+      }
+
+      Set<App> changedApps = new HashSet<>(changes.added());
+      changedApps.addAll(changes.updated());
+      if (changedApps.isEmpty()) {
+        return;
+      }
+      List<Evaluation> evaluations =
+          evaluate(groupArtifactUsages(changedApps), LookupMode.KNOWN_VERSIONS).join();
+      synchronized (this) {
+        deleteResults(changedApps, resultIds(changedApps));
+        persist(evaluations);
+      }
+      logger.debug(
+          "Re-evaluated {} apps changed by collector {}", changedApps.size(), changes.collector());
+    } catch (Exception e) {
+      logger.error(
+          "Failed to handle the apps changed by collector {}: {}",
+          changes.collector(),
+          e.getMessage(),
+          e);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    changeHandler.shutdownNow();
+  }
+
+  /**
+   * Drops the known versions of the artifacts of removed apps that no other app uses anymore. The
+   * collectors publish their changes after updating their apps, so the remaining apps are current.
+   */
+  private void forgetUnusedSources(Set<App> removedApps) {
+    Set<String> removedSources = sourceKeys(removedApps);
+    removedSources.removeAll(sourceKeys(collectorService.getAllCollectedApps()));
+    knownVersions.keySet().removeAll(removedSources);
+  }
+
+  private static Set<String> sourceKeys(Set<App> apps) {
+    Set<String> keys = new HashSet<>();
+    for (App app : apps) {
+      for (AppArtifact artifact : app.getCurrentVersion().getArtifacts()) {
+        keys.add(artifactSourceKey(artifact));
+      }
+    }
+    return keys;
+  }
+
+  /** Deletes the stored results of the apps, except those with one of the kept ids. */
+  private synchronized void deleteResults(Set<App> apps, Set<String> keptIds) {
+    Set<String> obsoleteIds = new HashSet<>();
+    for (App app : apps) {
+      Set<String> ids = storedResultIds.get(app.getId());
+      if (ids == null) {
+        continue;
+      }
+      for (String id : ids) {
+        if (!keptIds.contains(id)) {
+          obsoleteIds.add(id);
+        }
+      }
+      ids.removeAll(obsoleteIds);
+      if (ids.isEmpty()) {
+        storedResultIds.remove(app.getId());
+      }
+    }
+    if (!obsoleteIds.isEmpty()) {
+      outdatedArtifactInfoRepository.deleteAllById(obsoleteIds);
+    }
+  }
+
+  /**
+   * Stores the outcome of evaluations: saves the outdated artifacts and deletes the results of
+   * artifacts that are no longer outdated.
+   */
+  private synchronized void persist(List<Evaluation> evaluations) {
+    Set<String> obsoleteIds = new HashSet<>();
+    long timeToLive = resultTimeToLiveSeconds();
+    List<OutdatedArtifactInfo> outdated = new ArrayList<>();
+    for (Evaluation evaluation : evaluations) {
+      String appId = evaluation.usage().app().getId();
+      String id = resultId(evaluation.usage());
+      if (evaluation.outdated() != null) {
+        evaluation.outdated().setTimeToLive(timeToLive);
+        outdated.add(evaluation.outdated());
+        indexResult(appId, id);
+      } else {
+        Set<String> ids = storedResultIds.get(appId);
+        if (ids != null && ids.remove(id)) {
+          obsoleteIds.add(id);
+        }
+      }
+    }
+
+    if (!obsoleteIds.isEmpty()) {
+      outdatedArtifactInfoRepository.deleteAllById(obsoleteIds);
+    }
+    if (!outdated.isEmpty()) {
+      outdatedArtifactInfoRepository.saveAll(outdated);
+    }
+  }
+
+  private void indexResult(String appId, String id) {
+    storedResultIds.computeIfAbsent(appId, key -> new HashSet<>()).add(id);
+  }
+
+  /**
+   * Results are only rewritten when something changed, so they have to outlive the interval between
+   * full refreshes.
+   */
+  private long resultTimeToLiveSeconds() {
+    return Math.max(
+        properties.getCacheValidityMinutes() * 60,
+        2 * properties.getFullRefreshIntervalMs() / 1000);
+  }
+
+  private static String resultId(ArtifactUsage usage) {
+    return OutdatedArtifactInfo.idFor(
+        usage.app().getId(), usage.artifact().getSource(), usage.artifact().getArtifactType());
   }
 
   private String determineCurrentArtifactVersion(AppArtifact artifact, AppVersion appVersion) {
@@ -161,8 +440,8 @@ public class OutdatedArtifactsService {
               try {
                 String mapKey =
                     app.getName() + "::" + artifact.getArtifactType() + "::" + artifact.getSource();
-                List<String> availableVersions = fetcher.getAvailableVersions(artifact);
-                artifactVersionsMap.put(mapKey, availableVersions);
+                VersionSet availableVersions = fetcher.getAvailableVersions(artifact);
+                artifactVersionsMap.put(mapKey, availableVersions.tags());
               } catch (Exception e) {
                 String errorKey =
                     app.getName()
@@ -195,148 +474,269 @@ public class OutdatedArtifactsService {
 
   private List<OutdatedArtifactInfo> getOutdatedArtifactsParallel() {
     long startTime = System.nanoTime();
-    ExecutorService executor =
-        Executors.newFixedThreadPool(10); // Adjust thread pool size as needed
-    List<CompletableFuture<Optional<OutdatedArtifactInfo>>> futures = new ArrayList<>();
-    Set<App> apps = collectorService.getAllCollectedApps();
-
-    for (App app : apps) {
-      AppVersion currentAppVersion = app.getCurrentVersion();
-      for (AppArtifact artifact : currentAppVersion.getArtifacts()) {
-        CompletableFuture<Optional<OutdatedArtifactInfo>> future =
-            CompletableFuture.supplyAsync(
-                () -> {
-                  try {
-                    return processArtifact(app, currentAppVersion, artifact);
-                  } catch (Exception e) {
-                    logger.error(
-                        "Error processing artifact {}: {}",
-                        artifact.getSource(),
-                        e.getMessage(),
-                        e);
-                    return Optional.empty();
-                  }
-                },
-                executor);
-        futures.add(future);
-      }
-    }
-
+    Map<String, List<ArtifactUsage>> usagesBySource =
+        groupArtifactUsages(collectorService.getAllCollectedApps());
     List<OutdatedArtifactInfo> outdatedList =
-        futures.stream()
-            .map(CompletableFuture::join)
+        evaluate(usagesBySource, LookupMode.FULL).join().stream()
+            .map(Evaluation::outdated)
             .filter(Objects::nonNull)
-            .flatMap(Optional::stream)
             .toList();
 
-    executor.shutdown();
     long endTime = System.nanoTime();
     long durationMillis = TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
     logger.info(
-        "getOutdatedArtifactsParallel completed in {} ms, found {} outdated artifacts.",
+        "getOutdatedArtifactsParallel completed in {} ms, fetched {} unique artifacts, found {}"
+            + " outdated artifacts.",
         durationMillis,
+        usagesBySource.size(),
         outdatedList.size());
     return outdatedList;
   }
 
-  private Optional<OutdatedArtifactInfo> processArtifact(
-      App app, AppVersion appVersion, AppArtifact artifact) throws Exception {
-    saveAppArtifact(artifact);
-    String currentArtifactVersionStr = determineCurrentArtifactVersion(artifact, appVersion);
+  /**
+   * Evaluates the usages of every unique artifact, looking up the available versions of each
+   * artifact once. Artifacts whose versions could not be looked up, or that the lookup mode skips,
+   * are left out of the result.
+   */
+  private CompletableFuture<List<Evaluation>> evaluate(
+      Map<String, List<ArtifactUsage>> usagesBySource, LookupMode mode) {
+    List<CompletableFuture<List<Evaluation>>> futures = new ArrayList<>();
+    for (Map.Entry<String, List<ArtifactUsage>> entry : usagesBySource.entrySet()) {
+      List<ArtifactUsage> usages = entry.getValue();
+      AppArtifact artifact = usages.get(0).artifact();
+      String sourceKey = entry.getKey();
+      String floorVersion = oldestCurrentVersion(usages);
+      futures.add(
+          lookupExecutor.submit(
+              artifact,
+              () -> {
+                Optional<VersionSet> availableVersions =
+                    lookupVersions(sourceKey, artifact, floorVersion, mode);
+                if (availableVersions.isEmpty()) {
+                  return List.of();
+                }
+                List<Evaluation> evaluations = new ArrayList<>();
+                Map<ImageTagVariant, VersionSet> variantVersions = new HashMap<>();
+                for (ArtifactUsage usage : usages) {
+                  try {
+                    evaluations.add(
+                        new Evaluation(
+                            usage,
+                            evaluateArtifact(usage, availableVersions.get(), variantVersions)
+                                .orElse(null)));
+                  } catch (Exception e) {
+                    logger.error(
+                        "Error processing artifact {}: {}",
+                        artifact.getSource(),
+                        e.getMessage(),
+                        e);
+                  }
+                }
+                return evaluations;
+              }));
+    }
+    return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+        .thenApply(
+            ignored ->
+                futures.stream().map(CompletableFuture::join).flatMap(List::stream).toList());
+  }
 
-    if (currentArtifactVersionStr == null
-        || "unknown".equalsIgnoreCase(currentArtifactVersionStr)) {
-      logger.debug(
-          "Could not determine a valid current version for artifact {} (type: {}) in app {},"
-              + " skipping comparison.",
-          artifact.getSource(),
-          artifact.getArtifactType(),
-          app.getName());
+  /**
+   * Returns the versions to evaluate an artifact against for the given lookup mode, remembering
+   * fetched versions for later lookups. Known versions are reused when they were fetched from the
+   * same or an older floor, since they include all versions of interest. The versions are returned
+   * as fetched, including any older than the floor, so that they can be reported in full; only
+   * versions from the floor onwards count as a change upstream.
+   */
+  private Optional<VersionSet> lookupVersions(
+      String sourceKey, AppArtifact artifact, String floorVersion, LookupMode mode) {
+    com.github.zafarkhaja.semver.Version floor =
+        floorVersion != null ? SemanticVersionUtil.parseVersion(floorVersion).orElse(null) : null;
+    KnownVersions known = knownVersions.get(sourceKey);
+    if (mode == LookupMode.KNOWN_VERSIONS && known != null && known.covers(floor)) {
+      return Optional.of(known.versions());
+    }
+    Optional<VersionSet> fetched = fetchAvailableVersions(artifact, floorVersion);
+    if (fetched.isEmpty()) {
       return Optional.empty();
     }
+    knownVersions.put(sourceKey, new KnownVersions(floor, fetched.get()));
+    if (mode == LookupMode.CHANGED_UPSTREAM
+        && known != null
+        && known.covers(floor)
+        && fetched.get().from(floor).equals(known.versions().from(floor))) {
+      return Optional.empty();
+    }
+    return fetched;
+  }
 
-    // Count number of dots, if we only have X.Y, we add .0 at the end
-    int dotCount = currentArtifactVersionStr.split("\\.").length;
-    if (dotCount == 1) {
-      if (currentArtifactVersionStr.contains("-")) {
-        int hyphenIndex = currentArtifactVersionStr.indexOf('-');
-        String suffix = currentArtifactVersionStr.substring(hyphenIndex);
-        currentArtifactVersionStr =
-            currentArtifactVersionStr.substring(0, hyphenIndex) + ".0" + suffix;
-      } else {
-        currentArtifactVersionStr += ".0";
+  /**
+   * Groups the artifacts of all apps by their source, so that an artifact referenced by many apps
+   * is only looked up once. Artifacts without a determinable current version are left out.
+   */
+  private Map<String, List<ArtifactUsage>> groupArtifactUsages(Set<App> apps) {
+    Map<String, List<ArtifactUsage>> usagesBySource = new HashMap<>();
+    for (App app : apps) {
+      AppVersion currentAppVersion = app.getCurrentVersion();
+      for (AppArtifact artifact : currentAppVersion.getArtifacts()) {
+        saveAppArtifact(artifact);
+        String currentArtifactVersion =
+            determineCurrentArtifactVersion(artifact, currentAppVersion);
+        if (currentArtifactVersion == null || "unknown".equalsIgnoreCase(currentArtifactVersion)) {
+          logger.debug(
+              "Could not determine a valid current version for artifact {} (type: {}) in app {},"
+                  + " skipping comparison.",
+              artifact.getSource(),
+              artifact.getArtifactType(),
+              app.getName());
+          continue;
+        }
+        usagesBySource
+            .computeIfAbsent(artifactSourceKey(artifact), key -> new ArrayList<>())
+            .add(
+                new ArtifactUsage(
+                    app,
+                    currentAppVersion,
+                    artifact,
+                    normalizeCurrentVersion(currentArtifactVersion)));
       }
     }
+    return usagesBySource;
+  }
 
-    // TODO: can this be removed?
-    //    Optional<com.github.zafarkhaja.semver.Version> currentParsedVersionOpt =
-    //        SemanticVersionUtil.parseVersion(currentArtifactVersionStr);
+  private static String artifactSourceKey(AppArtifact artifact) {
+    if ("containerImage".equalsIgnoreCase(artifact.getArtifactType())) {
+      // Images are recorded per app and per tag, but their versions only depend on the repository
+      Optional<ImageReference> image = ImageReference.parse(artifact.getSource());
+      if (image.isPresent()) {
+        return artifact.getArtifactType()
+            + "::"
+            + image.get().registry()
+            + "/"
+            + image.get().repository();
+      }
+    }
+    return artifact.getArtifactType()
+        + "::"
+        + artifact.getSource()
+        + "::"
+        + artifact.getArtifactName();
+  }
 
+  /**
+   * Returns the oldest version deployed by any of the usages, below which no available version is
+   * of interest, or null if one of the versions is not a semantic version.
+   */
+  private static String oldestCurrentVersion(List<ArtifactUsage> usages) {
+    com.github.zafarkhaja.semver.Version oldest = null;
+    for (ArtifactUsage usage : usages) {
+      Optional<com.github.zafarkhaja.semver.Version> current =
+          SemanticVersionUtil.parseVersion(usage.currentArtifactVersion());
+      if (current.isEmpty()) {
+        return null;
+      }
+      if (oldest == null || SemanticVersionUtil.comparePrecedence(current.get(), oldest) < 0) {
+        oldest = current.get();
+      }
+    }
+    return oldest != null ? oldest.toString() : null;
+  }
+
+  /**
+   * Looks up the available versions of an artifact, from the floor version onwards. Concurrent
+   * lookups of the same artifact and floor share a single call to the fetcher.
+   *
+   * @return the available versions, or empty if there is no fetcher or the fetch failed.
+   */
+  private Optional<VersionSet> fetchAvailableVersions(AppArtifact artifact, String floorVersion) {
     for (VersionFetcher fetcher : versionFetchers) {
       if (fetcher.supports(artifact)) {
         try {
-          List<String> availableVersions = fetcher.getAvailableVersions(artifact);
-          if (availableVersions == null || availableVersions.isEmpty()) {
-            return Optional.empty();
-          }
-
-          Optional<com.github.zafarkhaja.semver.Version> latestOverallOpt =
-              SemanticVersionUtil.getLatestOverallVersion(availableVersions);
-          Optional<com.github.zafarkhaja.semver.Version> latestGAOpt =
-              SemanticVersionUtil.getLatestGARelease(availableVersions);
-
-          String latestGAVersionStr = latestGAOpt.map(Object::toString).orElse(null);
-          String latestOverallVersionStr = latestOverallOpt.map(Object::toString).orElse(null);
-
-          boolean isOutdated =
-              (latestGAVersionStr != null
-                      && SemanticVersionUtil.isOutdated(
-                          currentArtifactVersionStr, latestGAVersionStr))
-                  || (latestGAVersionStr == null
-                      && latestOverallVersionStr != null
-                      && SemanticVersionUtil.isOutdated(
-                          currentArtifactVersionStr, latestOverallVersionStr));
-
-          if (isOutdated) {
-            return Optional.of(
-                createOutdatedInfo(
-                    app,
-                    appVersion,
-                    artifact,
-                    currentArtifactVersionStr,
-                    availableVersions,
-                    latestOverallOpt,
-                    latestGAOpt));
-          }
+          VersionSet availableVersions =
+              versionLookups.execute(
+                  artifactSourceKey(artifact) + "::" + floorVersion,
+                  () -> fetcher.getAvailableVersions(artifact, floorVersion));
+          return Optional.of(availableVersions != null ? availableVersions : VersionSet.empty());
         } catch (Exception e) {
           logger.error(
-              "Error fetching or comparing versions for artifact {}: {}",
+              "Error fetching versions for artifact {}: {}",
               artifact.getSource(),
               e.getMessage(),
               e);
+          return Optional.empty();
         }
-        break;
       }
     }
+    logger.debug("No version fetcher supports artifact {}", artifact.getSource());
     return Optional.empty();
   }
 
+  private static String normalizeCurrentVersion(String currentArtifactVersionStr) {
+    // Count number of dots, if we only have X.Y, we add .0 at the end
+    int dotCount = currentArtifactVersionStr.split("\\.").length;
+    if (dotCount == 1) {
+      if (currentArtifactVersionStr.contains("-")) {
+        int hyphenIndex = currentArtifactVersionStr.indexOf('-');
+        String suffix = currentArtifactVersionStr.substring(hyphenIndex);
+        return currentArtifactVersionStr.substring(0, hyphenIndex) + ".0" + suffix;
+      }
+      return currentArtifactVersionStr + ".0";
+    }
+    return currentArtifactVersionStr;
+  }
+
+  /**
+   * Evaluates an artifact usage against the available versions. Container images are compared with
+   * the tags of their own variant only, which are selected once per variant into {@code
+   * variantVersions}.
+   */
+  private Optional<OutdatedArtifactInfo> evaluateArtifact(
+      ArtifactUsage usage,
+      VersionSet availableVersions,
+      Map<ImageTagVariant, VersionSet> variantVersions) {
+    if (availableVersions.isEmpty()) {
+      return Optional.empty();
+    }
+    String currentArtifactVersionStr = usage.currentArtifactVersion();
+    Optional<com.github.zafarkhaja.semver.Version> currentOpt =
+        SemanticVersionUtil.parseVersion(currentArtifactVersionStr);
+    if (currentOpt.isEmpty()) {
+      logger.debug(
+          "Cannot compare versions due to parsing error: current='{}'", currentArtifactVersionStr);
+      return Optional.empty();
+    }
+
+    com.github.zafarkhaja.semver.Version current = currentOpt.get();
+    VersionSet candidates = availableVersions;
+    if ("containerImage".equalsIgnoreCase(usage.artifact().getArtifactType())) {
+      ImageTagVariant variant = ImageTagVariant.of(current);
+      candidates = variantVersions.computeIfAbsent(variant, v -> v.select(availableVersions));
+      current = variant.strip(current);
+    }
+    VersionAnalysis analysis = VersionAnalysis.of(current, candidates);
+    if (!analysis.isOutdated()) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        createOutdatedInfo(
+            usage.app(),
+            usage.appVersion(),
+            usage.artifact(),
+            currentArtifactVersionStr,
+            analysis,
+            candidates));
+  }
+
+  /**
+   * Reports the versions by the tags they were listed as, which for images are the tags to pull.
+   */
   private OutdatedArtifactInfo createOutdatedInfo(
       App app,
       AppVersion appVersion,
       AppArtifact artifact,
       String currentVersion,
-      List<String> availableVersions,
-      Optional<com.github.zafarkhaja.semver.Version> latestOverallOpt,
-      Optional<com.github.zafarkhaja.semver.Version> latestGAOpt) {
-
-    Optional<String> nextMinorOpt =
-        SemanticVersionUtil.findNextMinorVersion(currentVersion, availableVersions);
-    Optional<String> nextMajorOpt =
-        SemanticVersionUtil.findNextMajorVersion(currentVersion, availableVersions);
-    Optional<com.github.zafarkhaja.semver.Version> currentParsedVersionOpt =
-        SemanticVersionUtil.parseVersion(currentVersion);
-
+      VersionAnalysis analysis,
+      VersionSet availableVersions) {
     return new OutdatedArtifactInfo(
         app.getName(),
         app.getId(),
@@ -344,18 +744,19 @@ public class OutdatedArtifactsService {
         artifact.getSource(),
         artifact.getArtifactType(),
         currentVersion,
-        latestOverallOpt.map(Object::toString).orElse(null),
-        latestGAOpt.map(Object::toString).orElse(null),
-        SemanticVersionUtil.getLatestPreRelease(availableVersions)
-            .map(Object::toString)
-            .orElse(null),
-        nextMinorOpt.orElse(null),
-        nextMajorOpt.orElse(null),
-        SemanticVersionUtil.calculateMajorVersionDelta(currentParsedVersionOpt, nextMajorOpt)
-            .orElse(null),
-        SemanticVersionUtil.calculateMinorVersionDelta(currentParsedVersionOpt, nextMinorOpt)
-            .orElse(null),
-        availableVersions);
+        tagOf(analysis.latest(), availableVersions),
+        tagOf(analysis.latestRelease(), availableVersions),
+        tagOf(analysis.latestPreRelease(), availableVersions),
+        tagOf(analysis.nextMinor(), availableVersions),
+        tagOf(analysis.nextMajor(), availableVersions),
+        analysis.majorVersionDelta(),
+        analysis.minorVersionDelta(),
+        availableVersions.tags());
+  }
+
+  private static String tagOf(
+      com.github.zafarkhaja.semver.Version version, VersionSet availableVersions) {
+    return version != null ? availableVersions.tagOf(version) : null;
   }
 
   public void saveAppArtifact(AppArtifact appArtifact) {
@@ -377,4 +778,33 @@ public class OutdatedArtifactsService {
       return Collections.emptyList();
     }
   }
+
+  /** An artifact as deployed by one app, with the artifact version that app currently runs. */
+  private record ArtifactUsage(
+      App app, AppVersion appVersion, AppArtifact artifact, String currentArtifactVersion) {}
+
+  /**
+   * The versions last fetched for an artifact source.
+   *
+   * @param floor the floor version they were fetched from, or null if they include all versions.
+   */
+  private record KnownVersions(com.github.zafarkhaja.semver.Version floor, VersionSet versions) {
+    boolean covers(com.github.zafarkhaja.semver.Version requestedFloor) {
+      return floor == null
+          || (requestedFloor != null
+              && SemanticVersionUtil.comparePrecedence(floor, requestedFloor) <= 0);
+    }
+  }
+
+  /** The outcome of evaluating an artifact usage; {@code outdated} is null if it is up to date. */
+  private record Evaluation(ArtifactUsage usage, OutdatedArtifactInfo outdated) {}
+
+  private enum LookupMode {
+    /** Fetch the available versions and evaluate every artifact. */
+    FULL,
+    /** Fetch the available versions, but only evaluate artifacts whose versions changed. */
+    CHANGED_UPSTREAM,
+    /** Evaluate against the last fetched versions, only fetching unknown artifacts. */
+    KNOWN_VERSIONS
+  }
 }
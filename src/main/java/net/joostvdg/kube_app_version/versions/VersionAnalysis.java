@@ -0,0 +1,57 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions;
+
+import com.github.zafarkhaja.semver.Version;
+import java.util.Optional;
+import net.joostvdg.kube_app_version.versions.util.SemanticVersionUtil;
+
+/**
+ * Everything the outdated check derives from a current version and the available versions of an
+ * artifact, computed in one go. Fields are null if there is no such version.
+ *
+ * @param current the version that is deployed.
+ * @param latest the latest available version, release or pre-release.
+ * @param latestRelease the latest available version that is not a pre-release.
+ * @param latestPreRelease the latest available pre-release.
+ * @param nextMinor the latest release in the current major.minor series, if not older than current.
+ * @param nextMajor the latest release in the current major series, if not older than current.
+ * @param majorVersionDelta how many minor versions {@code nextMajor} is ahead of current.
+ * @param minorVersionDelta how many patch versions {@code nextMinor} is ahead of current.
+ */
+public record VersionAnalysis(
+    Version current,
+    Version latest,
+    Version latestRelease,
+    Version latestPreRelease,
+    Version nextMinor,
+    Version nextMajor,
+    Long majorVersionDelta,
+    Long minorVersionDelta) {
+
+  /**
+   * Analyzes a current version against the available versions. The version set already holds the
+   * sorted partitions and series indexes, so this only does a handful of lookups.
+   */
+  public static VersionAnalysis of(Version current, VersionSet availableVersions) {
+    Optional<Version> nextMinor = availableVersions.latestReleaseInMinor(current);
+    Optional<Version> nextMajor = availableVersions.latestReleaseInMajor(current);
+    return new VersionAnalysis(
+        current,
+        availableVersions.latest().orElse(null),
+        availableVersions.latestRelease().orElse(null),
+        availableVersions.latestPreRelease().orElse(null),
+        nextMinor.orElse(null),
+        nextMajor.orElse(null),
+        SemanticVersionUtil.calculateMajorVersionDelta(current, nextMajor).orElse(null),
+        SemanticVersionUtil.calculateMinorVersionDelta(current, nextMinor).orElse(null));
+  }
+
+  /**
+   * Whether a newer version is available: the latest release if there is one, otherwise the latest
+   * pre-release.
+   */
+  public boolean isOutdated() {
+    Version target = latestRelease != null ? latestRelease : latest;
+    return target != null && SemanticVersionUtil.comparePrecedence(target, current) > 0;
+  }
+}
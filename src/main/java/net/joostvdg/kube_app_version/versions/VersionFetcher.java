@@ -1,7 +1,6 @@
 /* (C)2025 */
 package net.joostvdg.kube_app_version.versions;
 
-import java.util.List;
 import net.joostvdg.kube_app_version.api.model.AppArtifact;
 
 public interface VersionFetcher {
@@ -10,10 +9,25 @@ public interface VersionFetcher {
    * Fetches a list of available versions for the given artifact.
    *
    * @param artifact The application artifact (e.g., Helm chart, Git repo).
-   * @return A list of available version strings.
+   * @return The available versions, parsed and sorted latest first.
    * @throws Exception if an error occurs during version fetching.
    */
-  List<String> getAvailableVersions(AppArtifact artifact) throws Exception;
+  VersionSet getAvailableVersions(AppArtifact artifact) throws Exception;
+
+  /**
+   * Fetches the available versions of the given artifact that are not older than a floor version.
+   * Fetchers that page through a version listing ordered newest first can use the floor to stop
+   * early; versions older than the floor may or may not be part of the result.
+   *
+   * @param artifact The application artifact (e.g., Helm chart, Git repo).
+   * @param floorVersion The oldest version of interest, or null for all versions.
+   * @return The available versions, including at least all versions from the floor.
+   * @throws Exception if an error occurs during version fetching.
+   */
+  default VersionSet getAvailableVersions(AppArtifact artifact, String floorVersion)
+      throws Exception {
+    return getAvailableVersions(artifact);
+  }
 
   /**
    * Checks if this version fetcher supports the given artifact.
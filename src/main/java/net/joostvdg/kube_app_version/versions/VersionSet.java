@@ -0,0 +1,287 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions;
+
+import com.github.zafarkhaja.semver.Version;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import net.joostvdg.kube_app_version.versions.util.SemanticVersionUtil;
+
+/**
+ * The available versions of an artifact: parsed, distinct and sorted latest first. Each version
+ * keeps the tag it was parsed from, such as {@code v1.2} for {@code 1.2.0}, to report it by.
+ *
+ * <p>Releases and pre-releases are kept apart, and the latest release of every major and every
+ * major.minor series is indexed up front, so that the questions asked while evaluating an artifact
+ * (latest release, latest pre-release, latest release in the current major or minor series) are
+ * lookups instead of passes over all versions. Instances are immutable and safe to share.
+ */
+public final class VersionSet {
+
+  private static final VersionSet EMPTY = new VersionSet(List.of(), List.of());
+
+  private final List<Version> versions;
+  private final List<Version> releases;
+  private final List<Version> preReleases;
+  private final Map<Long, Version> latestReleaseByMajor;
+  private final Map<MinorSeries, Version> latestReleaseByMinor;
+  private final List<String> versionStrings;
+  private final List<String> tags;
+
+  /**
+   * @param sortedTags the tag of each version, or null if the versions are their own tags.
+   */
+  private VersionSet(List<Version> sortedVersions, List<String> sortedTags) {
+    List<Version> releaseList = new ArrayList<>();
+    List<Version> preReleaseList = new ArrayList<>();
+    Map<Long, Version> byMajor = new HashMap<>();
+    Map<MinorSeries, Version> byMinor = new HashMap<>();
+    for (Version version : sortedVersions) {
+      if (version.isPreRelease()) {
+        preReleaseList.add(version);
+        continue;
+      }
+      releaseList.add(version);
+      // Versions are sorted latest first, so the first release seen for a series is its latest
+      byMajor.putIfAbsent(version.majorVersion(), version);
+      byMinor.putIfAbsent(new MinorSeries(version.majorVersion(), version.minorVersion()), version);
+    }
+    this.versions = sortedVersions;
+    this.releases = List.copyOf(releaseList);
+    this.preReleases = List.copyOf(preReleaseList);
+    this.latestReleaseByMajor = Map.copyOf(byMajor);
+    this.latestReleaseByMinor = Map.copyOf(byMinor);
+    this.versionStrings = sortedVersions.stream().map(Version::toString).toList();
+    this.tags = sortedTags != null ? sortedTags : versionStrings;
+  }
+
+  public static VersionSet empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Builds a version set from parsed versions, in any order.
+   *
+   * @param versions the versions; duplicates are dropped.
+   */
+  public static VersionSet of(Collection<Version> versions) {
+    if (versions == null || versions.isEmpty()) {
+      return EMPTY;
+    }
+    return new VersionSet(sortLatestFirst(versions), null);
+  }
+
+  /**
+   * Builds a version set from versions and the tags they were parsed from, in any order.
+   *
+   * @param tagsByVersion the tag of each version.
+   */
+  public static VersionSet tagged(Map<Version, String> tagsByVersion) {
+    if (tagsByVersion == null || tagsByVersion.isEmpty()) {
+      return EMPTY;
+    }
+    PackedVersion[] packed = new PackedVersion[tagsByVersion.size()];
+    int index = 0;
+    for (Map.Entry<Version, String> entry : tagsByVersion.entrySet()) {
+      packed[index++] = new PackedVersion(entry.getKey(), entry.getValue());
+    }
+    return sorted(packed);
+  }
+
+  /**
+   * Sorts versions latest first on their packed form, only comparing the full versions to break
+   * ties. Equal versions end up next to each other, so duplicates are dropped on the way out.
+   */
+  static List<Version> sortLatestFirst(Collection<Version> versions) {
+    PackedVersion[] packed = new PackedVersion[versions.size()];
+    int index = 0;
+    for (Version version : versions) {
+      packed[index++] = new PackedVersion(version, null);
+    }
+    Arrays.sort(packed, Comparator.reverseOrder());
+    List<Version> sorted = new ArrayList<>(packed.length);
+    PackedVersion previous = null;
+    for (PackedVersion version : packed) {
+      if (previous == null || previous.compareTo(version) != 0) {
+        sorted.add(version.version());
+      }
+      previous = version;
+    }
+    return Collections.unmodifiableList(sorted);
+  }
+
+  /**
+   * Sorts tagged versions latest first and drops duplicates. Of the tags of equal versions, the one
+   * that is the version itself is kept, otherwise the first one.
+   */
+  private static VersionSet sorted(PackedVersion[] packed) {
+    Arrays.sort(packed, Comparator.reverseOrder());
+    List<Version> sorted = new ArrayList<>(packed.length);
+    List<String> sortedTags = new ArrayList<>(packed.length);
+    PackedVersion previous = null;
+    for (PackedVersion version : packed) {
+      if (previous == null || previous.compareTo(version) != 0) {
+        sorted.add(version.version());
+        sortedTags.add(version.tag());
+      } else if (version.tag().equals(version.version().toString())) {
+        sortedTags.set(sortedTags.size() - 1, version.tag());
+      }
+      previous = version;
+    }
+    return new VersionSet(
+        Collections.unmodifiableList(sorted), Collections.unmodifiableList(sortedTags));
+  }
+
+  /**
+   * Builds a version set from version strings, such as registry tags, in any order.
+   *
+   * @param versionStrings the version strings; strings that are not semantic versions are dropped.
+   */
+  public static VersionSet parse(Collection<String> versionStrings) {
+    if (versionStrings == null || versionStrings.isEmpty()) {
+      return EMPTY;
+    }
+    List<PackedVersion> packed = new ArrayList<>(versionStrings.size());
+    for (String versionString : versionStrings) {
+      SemanticVersionUtil.parseVersion(versionString)
+          .ifPresent(version -> packed.add(new PackedVersion(version, versionString)));
+    }
+    return packed.isEmpty() ? EMPTY : sorted(packed.toArray(PackedVersion[]::new));
+  }
+
+  /** The latest version, release or pre-release. */
+  public Optional<Version> latest() {
+    return versions.isEmpty() ? Optional.empty() : Optional.of(versions.get(0));
+  }
+
+  /** The latest version that is not a pre-release. */
+  public Optional<Version> latestRelease() {
+    return releases.isEmpty() ? Optional.empty() : Optional.of(releases.get(0));
+  }
+
+  public Optional<Version> latestPreRelease() {
+    return preReleases.isEmpty() ? Optional.empty() : Optional.of(preReleases.get(0));
+  }
+
+  /**
+   * The latest release in the same major series as the given version, if it is not older than it.
+   */
+  public Optional<Version> latestReleaseInMajor(Version current) {
+    return notOlderThan(latestReleaseByMajor.get(current.majorVersion()), current);
+  }
+
+  /**
+   * The latest release in the same major.minor series as the given version, if it is not older than
+   * it.
+   */
+  public Optional<Version> latestReleaseInMinor(Version current) {
+    return notOlderThan(
+        latestReleaseByMinor.get(new MinorSeries(current.majorVersion(), current.minorVersion())),
+        current);
+  }
+
+  /**
+   * The versions from the floor version onwards, dropping the versions that precede it.
+   *
+   * @param floor the oldest version of interest, or null to keep all versions.
+   */
+  public VersionSet from(Version floor) {
+    if (floor == null) {
+      return this;
+    }
+    // Sorted latest first, so the versions older than the floor are at the end
+    int end = versions.size();
+    while (end > 0 && SemanticVersionUtil.comparePrecedence(versions.get(end - 1), floor) < 0) {
+      end--;
+    }
+    if (end == versions.size()) {
+      return this;
+    }
+    return end == 0 ? EMPTY : new VersionSet(versions.subList(0, end), tags.subList(0, end));
+  }
+
+  /** All versions, latest first. */
+  public List<Version> versions() {
+    return versions;
+  }
+
+  /** All versions as normalized strings, latest first. */
+  public List<String> asStrings() {
+    return versionStrings;
+  }
+
+  /** The tags of all versions, latest first. */
+  public List<String> tags() {
+    return tags;
+  }
+
+  /**
+   * The tag a version of this set was parsed from.
+   *
+   * @return the tag, or the version itself if it is not part of this set.
+   */
+  public String tagOf(Version version) {
+    PackedVersion key = new PackedVersion(version, null);
+    // Sorted latest first, so an element sorts before the key when it is later than the key
+    int index =
+        Collections.binarySearch(
+            versions,
+            version,
+            (element, ignored) -> key.compareTo(new PackedVersion(element, null)));
+    return index >= 0 ? tags.get(index) : version.toString();
+  }
+
+  public boolean isEmpty() {
+    return versions.isEmpty();
+  }
+
+  public int size() {
+    return versions.size();
+  }
+
+  private static Optional<Version> notOlderThan(Version candidate, Version current) {
+    return candidate != null && SemanticVersionUtil.comparePrecedence(candidate, current) >= 0
+        ? Optional.of(candidate)
+        : Optional.empty();
+  }
+
+  // Compared by their tags, so that a change in build metadata or in a tag alone still counts as a
+  // change
+  @Override
+  public boolean equals(Object o) {
+    return this == o || (o instanceof VersionSet other && tags.equals(other.tags));
+  }
+
+  @Override
+  public int hashCode() {
+    return tags.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return versionStrings.toString();
+  }
+
+  private record MinorSeries(long major, long minor) {}
+
+  /**
+   * @param tag the tag the version was parsed from, or null if the version is its own tag.
+   */
+  private record PackedVersion(long packed, Version version, String tag)
+      implements Comparable<PackedVersion> {
+    PackedVersion(Version version, String tag) {
+      this(SemanticVersionUtil.packVersion(version), version, tag);
+    }
+
+    @Override
+    public int compareTo(PackedVersion other) {
+      return SemanticVersionUtil.compare(packed, version, other.packed, other.version);
+    }
+  }
+}
@@ -12,16 +12,23 @@ import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import net.joostvdg.kube_app_version.api.model.AppArtifact;
+import net.joostvdg.kube_app_version.config.OutdatedArtifactsProperties;
 import net.joostvdg.kube_app_version.versions.VersionFetcher;
+import net.joostvdg.kube_app_version.versions.VersionSet;
+import net.joostvdg.kube_app_version.versions.http.ConditionalHttpCache;
+import net.joostvdg.kube_app_version.versions.http.LinkHeader;
+import net.joostvdg.kube_app_version.versions.http.RegistryRequestThrottle;
+import net.joostvdg.kube_app_version.versions.http.VersionFetchMetrics;
 import net.joostvdg.kube_app_version.versions.util.SemanticVersionUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -30,54 +37,70 @@ public class GithubOciHelmChartVersionFetcher implements VersionFetcher {
   private static final Logger logger =
       LoggerFactory.getLogger(GithubOciHelmChartVersionFetcher.class);
   private final HttpClient httpClient;
-  private final Map<String, List<String>> versionCache = new ConcurrentHashMap<>();
+  private final RegistryRequestThrottle throttle;
+  private final ConditionalHttpCache<PackageVersions> versionCache;
   private final ObjectMapper objectMapper = new ObjectMapper();
   private static final Pattern GITHUB_OCI_PATTERN = Pattern.compile("^oci://ghcr\\.io/(.+)$");
+  private static final Pattern PAGE_PARAMETER = Pattern.compile("(?:^|&)page=(\\d{1,9})(?:&|$)");
+  private static final int PAGE_SIZE = 100;
+  // Safety net against endless pagination, 10,000 versions is far beyond any real chart
+  private static final int MAX_PAGES = 100;
 
-  public GithubOciHelmChartVersionFetcher() {
+  public GithubOciHelmChartVersionFetcher(
+      OutdatedArtifactsProperties properties,
+      VersionFetchMetrics metrics,
+      RegistryRequestThrottle throttle) {
+    this.throttle = throttle;
     this.httpClient =
         HttpClient.newBuilder()
             .followRedirects(HttpClient.Redirect.NORMAL)
             .connectTimeout(Duration.ofSeconds(10))
             .build();
+    this.versionCache =
+        new ConditionalHttpCache<>(
+            "github-packages",
+            () -> Duration.ofMinutes(properties.getRegistryCacheTtlMinutes()),
+            metrics);
   }
 
   @Override
-  @SuppressWarnings("MixedMutabilityReturnType") // not using Guava you stupid parser
-  @Cacheable(cacheNames = "kubeversion", key = "#artifact.source")
-  public List<String> getAvailableVersions(AppArtifact artifact) throws Exception {
+  public VersionSet getAvailableVersions(AppArtifact artifact) throws Exception {
+    return getAvailableVersions(artifact, null);
+  }
+
+  /**
+   * Lists the package versions page by page. GitHub returns the newest versions first, so with a
+   * floor version the listing stops at the first page that only holds older versions. Without a
+   * floor, the pages announced by the {@code last} link are fetched concurrently.
+   */
+  @Override
+  public VersionSet getAvailableVersions(AppArtifact artifact, String floorVersion)
+      throws Exception {
     if (!supports(artifact)) {
       logger.warn(
           "GithubOciHelmChartVersionFetcher does not support artifact: {}", artifact.getSource());
-      return Collections.emptyList();
+      return VersionSet.empty();
     }
 
     String source = artifact.getSource();
-    String cacheKey = artifact.getIdentifier();
-
-    List<String> cachedVersions = versionCache.get(cacheKey);
-    if (cachedVersions != null) {
-      logger.debug("Returning cached versions for {}", cacheKey);
-      return List.copyOf(cachedVersions);
-    }
 
     String githubToken = System.getenv("GITHUB_TOKEN");
     if (githubToken == null || githubToken.isEmpty()) {
       logger.error("GITHUB_TOKEN environment variable is not set or empty");
-      return Collections.emptyList();
+      return VersionSet.empty();
     }
 
     Matcher matcher = GITHUB_OCI_PATTERN.matcher(source);
     if (!matcher.matches()) {
       logger.error("Failed to parse GitHub OCI URL: {}", source);
-      return Collections.emptyList();
+      return VersionSet.empty();
     }
 
     String path = matcher.group(1);
     String[] pathParts = path.split("/", 2);
     if (pathParts.length < 2) {
       logger.error("Invalid GitHub OCI path format: {}", path);
-      return Collections.emptyList();
+      return VersionSet.empty();
     }
 
     logger.debug("Path parts of GitHub OCI URL: {}", Arrays.toString(pathParts));
@@ -92,31 +115,145 @@ public class GithubOciHelmChartVersionFetcher implements VersionFetcher {
             + "/packages/container/"
             + encodedPackagePath.replace("/", "%2F")
             + "/versions";
+    Version floor =
+        floorVersion != null ? SemanticVersionUtil.parseVersion(floorVersion).orElse(null) : null;
+
+    Optional<PackageVersions> cachedVersions =
+        versionCache.getIfFresh(apiUrl).filter(cached -> cached.covers(floor));
+    if (cachedVersions.isPresent()) {
+      logger.debug("Returning cached versions for {}", apiUrl);
+      return cachedVersions.get().versions();
+    }
+
     logger.debug("Fetching GitHub OCI versions from: {}", apiUrl);
 
+    URI firstPage = pageUri(apiUrl, 1);
+    // GitHub lists the newest versions first, so an unchanged first page means nothing was added
     HttpRequest request =
-        HttpRequest.newBuilder()
-            .uri(URI.create(apiUrl))
-            .header("Accept", "application/vnd.github+json")
-            .header("Authorization", "Bearer " + githubToken)
-            .header("X-GitHub-Api-Version", "2022-11-28")
-            .timeout(Duration.ofSeconds(10))
+        versionCache
+            .withValidators(
+                apiUrl, newRequest(firstPage, githubToken), cached -> cached.covers(floor))
             .build();
 
-    HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    HttpResponse<String> response =
+        throttle.send(httpClient, request, HttpResponse.BodyHandlers.ofString());
+
+    Optional<PackageVersions> unchangedVersions = versionCache.reuseIfNotModified(apiUrl, response);
+    if (unchangedVersions.isPresent()) {
+      logger.debug("GitHub OCI versions of {} not modified, keeping cached versions", source);
+      return unchangedVersions.get().versions();
+    }
+    checkStatus(firstPage, response);
+
+    List<String> versions = readTags(response.body());
+    boolean reachedFloor = isBelowFloor(versions, floor);
+    LinkHeader links = LinkHeader.of(response);
+    Optional<Integer> lastPage =
+        links.get("last", firstPage).map(GithubOciHelmChartVersionFetcher::pageNumber);
+
+    if (reachedFloor) {
+      logger.debug("First page of {} is older than {}, not fetching more pages", apiUrl, floor);
+    } else if (floor == null && lastPage.isPresent()) {
+      versions.addAll(fetchPagesConcurrently(apiUrl, lastPage.get(), githubToken));
+    } else {
+      Optional<URI> nextPage = links.next(firstPage);
+      int pagesFetched = 1;
+      while (nextPage.isPresent() && !reachedFloor) {
+        if (pagesFetched >= MAX_PAGES) {
+          logger.warn("Stopped listing {} after {} pages", apiUrl, pagesFetched);
+          break;
+        }
+        HttpResponse<String> pageResponse = fetchPage(nextPage.get(), githubToken);
+        List<String> pageTags = readTags(pageResponse.body());
+        versions.addAll(pageTags);
+        reachedFloor = isBelowFloor(pageTags, floor);
+        nextPage = LinkHeader.of(pageResponse).next(nextPage.get());
+        pagesFetched++;
+      }
+      if (reachedFloor) {
+        logger.debug("Stopped listing {} at versions older than {}", apiUrl, floor);
+      }
+    }
+    // Only a listing that stopped early is limited by the floor, a complete one answers any floor
+    Version coveredFloor = reachedFloor ? floor : null;
+
+    if (versions.isEmpty()) {
+      logger.warn("No versions found for {}", source);
+      return versionCache
+          .store(apiUrl, response, new PackageVersions(VersionSet.empty(), coveredFloor))
+          .versions();
+    }
+
+    VersionSet sortedVersions = VersionSet.parse(versions);
 
+    logger.info(
+        "Found and sorted {} versions for GitHub OCI chart: {}", sortedVersions.size(), source);
+    logger.debug("Versions of {}: {}", source, sortedVersions);
+
+    return versionCache
+        .store(apiUrl, response, new PackageVersions(sortedVersions, coveredFloor))
+        .versions();
+  }
+
+  private List<String> fetchPagesConcurrently(String apiUrl, int lastPage, String githubToken)
+      throws Exception {
+    int pageCount = Math.min(lastPage, MAX_PAGES);
+    if (pageCount < lastPage) {
+      logger.warn("Only listing the first {} of {} pages of {}", pageCount, lastPage, apiUrl);
+    }
+    logger.debug("Fetching pages 2 to {} of {} concurrently", pageCount, apiUrl);
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<List<String>>> pages = new ArrayList<>();
+      for (int page = 2; page <= pageCount; page++) {
+        URI pageUri = pageUri(apiUrl, page);
+        pages.add(executor.submit(() -> readTags(fetchPage(pageUri, githubToken).body())));
+      }
+      List<String> tags = new ArrayList<>();
+      for (Future<List<String>> page : pages) {
+        try {
+          tags.addAll(page.get());
+        } catch (ExecutionException e) {
+          if (e.getCause() instanceof Exception cause) {
+            throw cause;
+          }
+          throw e;
+        }
+      }
+      return tags;
+    }
+  }
+
+  private HttpResponse<String> fetchPage(URI pageUri, String githubToken) throws Exception {
+    HttpResponse<String> response =
+        throttle.send(
+            httpClient,
+            newRequest(pageUri, githubToken).build(),
+            HttpResponse.BodyHandlers.ofString());
+    checkStatus(pageUri, response);
+    return response;
+  }
+
+  private static HttpRequest.Builder newRequest(URI uri, String githubToken) {
+    return HttpRequest.newBuilder()
+        .uri(uri)
+        .header("Accept", "application/vnd.github+json")
+        .header("Authorization", "Bearer " + githubToken)
+        .header("X-GitHub-Api-Version", "2022-11-28")
+        .timeout(Duration.ofSeconds(10));
+  }
+
+  private static void checkStatus(URI uri, HttpResponse<String> response) {
     if (response.statusCode() != 200) {
       logger.error(
-          "Failed to fetch {}. HTTP status: {} - {}",
-          apiUrl,
-          response.statusCode(),
-          response.body());
+          "Failed to fetch {}. HTTP status: {} - {}", uri, response.statusCode(), response.body());
       throw new RuntimeException(
-          "Failed to fetch " + apiUrl + ". HTTP status: " + response.statusCode());
+          "Failed to fetch " + uri + ". HTTP status: " + response.statusCode());
     }
+  }
 
-    List<String> versions = new ArrayList<>();
-    JsonNode root = objectMapper.readTree(response.body());
+  private List<String> readTags(String body) throws Exception {
+    List<String> tags = new ArrayList<>();
+    JsonNode root = objectMapper.readTree(body);
 
     if (root.isArray()) {
       for (JsonNode versionNode : root) {
@@ -126,40 +263,46 @@ public class GithubOciHelmChartVersionFetcher implements VersionFetcher {
 
         if (tagsNode.isArray()) {
           for (JsonNode tagNode : tagsNode) {
-            String tag = tagNode.asText();
-            versions.add(tag);
+            tags.add(tagNode.asText());
           }
         }
       }
     }
+    return tags;
+  }
 
-    if (versions.isEmpty()) {
-      logger.warn("No versions found for {}", source);
-      versionCache.put(cacheKey, Collections.emptyList());
-      return Collections.emptyList();
+  /**
+   * Whether a page only holds versions older than the floor. Pages without any semantic version,
+   * such as untagged or digest-only versions, do not end the listing.
+   */
+  private static boolean isBelowFloor(List<String> pageTags, Version floor) {
+    if (floor == null) {
+      return false;
     }
+    List<Version> pageVersions =
+        pageTags.stream().map(SemanticVersionUtil::parseVersion).flatMap(Optional::stream).toList();
+    return !pageVersions.isEmpty()
+        && pageVersions.stream().allMatch(v -> SemanticVersionUtil.comparePrecedence(v, floor) < 0);
+  }
 
-    // Parse and sort versions
-    List<Version> semVerList =
-        versions.stream()
-            .map(SemanticVersionUtil::parseVersion)
-            .filter(Optional::isPresent)
-            .map(Optional::get)
-            .collect(Collectors.toList());
-
-    Collections.sort(semVerList, Collections.reverseOrder());
+  private static URI pageUri(String apiUrl, int page) {
+    return URI.create(apiUrl + "?per_page=" + PAGE_SIZE + "&page=" + page);
+  }
 
-    List<String> sortedVersionStrings = semVerList.stream().map(Version::toString).toList();
+  private static int pageNumber(URI pageUri) {
+    Matcher page = PAGE_PARAMETER.matcher(Objects.requireNonNullElse(pageUri.getQuery(), ""));
+    return page.find() ? Integer.parseInt(page.group(1)) : 1;
+  }
 
-    logger.info(
-        "Found and sorted {} versions for GitHub OCI chart: {}",
-        sortedVersionStrings.size(),
-        source);
-    versionCache.put(cacheKey, Collections.unmodifiableList(new ArrayList<>(sortedVersionStrings)));
-    // log versions for temp debugging
-    logger.info("Versions: {}", sortedVersionStrings);
-
-    return sortedVersionStrings;
+  /**
+   * The sorted versions of a package. A listing that stopped early at a floor version only holds
+   * the versions from that floor onwards; a complete listing has no floor.
+   */
+  private record PackageVersions(VersionSet versions, Version floor) {
+    boolean covers(Version requestedFloor) {
+      return floor == null
+          || (requestedFloor != null && requestedFloor.isHigherThanOrEquivalentTo(floor));
+    }
   }
 
   @Override
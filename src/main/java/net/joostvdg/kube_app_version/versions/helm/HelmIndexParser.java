@@ -0,0 +1,157 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.helm;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+
+/**
+ * Event-based reader for Helm repository {@code index.yaml} files.
+ *
+ * <p>Instead of loading the whole document into an object graph, this walks the SnakeYAML event
+ * stream and only keeps the {@code version} scalars of the charts accepted by the filter. Every
+ * other subtree (descriptions, urls, maintainers, other charts) is skipped as it streams by, so
+ * memory use no longer grows with the size of the index.
+ */
+public final class HelmIndexParser {
+
+  private static final String ENTRIES_KEY = "entries";
+  private static final String VERSION_KEY = "version";
+  // The largest public indexes (such as Bitnami's, before it was trimmed) are a few tens of MB, so
+  // this leaves ample headroom while still bounding how much of a runaway response is read
+  static final int MAX_INDEX_CODE_POINTS = 128 * 1024 * 1024;
+
+  private HelmIndexParser() {}
+
+  /**
+   * Reads the chart versions from a Helm index.
+   *
+   * @param indexStream the raw {@code index.yaml} content, closed by the caller.
+   * @param chartFilter selects the chart names whose versions should be kept.
+   * @return chart name to raw version strings, in index order. Charts without a version list are
+   *     absent from the map.
+   * @throws YAMLException if the content is not valid YAML, or longer than {@code
+   *     MAX_INDEX_CODE_POINTS} code points.
+   */
+  public static Map<String, List<String>> parseVersions(
+      InputStream indexStream, Predicate<String> chartFilter) {
+    // SnakeYAML's default limit of 3 MB is too low for large repositories. The event parser keeps
+    // memory flat regardless of size, so the limit only caps how much of an index is read.
+    LoaderOptions loaderOptions = new LoaderOptions();
+    loaderOptions.setCodePointLimit(MAX_INDEX_CODE_POINTS);
+    Reader reader = new InputStreamReader(indexStream, StandardCharsets.UTF_8);
+    Iterator<Event> events = new Yaml(loaderOptions).parse(reader).iterator();
+
+    Map<String, List<String>> versionsByChart = new HashMap<>();
+    Event event = nextContentEvent(events);
+    if (!(event instanceof MappingStartEvent)) {
+      return versionsByChart;
+    }
+
+    while (events.hasNext()) {
+      event = events.next();
+      if (event.is(Event.ID.MappingEnd)) {
+        break;
+      }
+      Event value = events.next();
+      if (isScalar(event, ENTRIES_KEY) && value instanceof MappingStartEvent) {
+        readEntries(events, chartFilter, versionsByChart);
+        // Nothing after 'entries' is of interest, stop reading the rest of the document.
+        break;
+      }
+      skipNode(value, events);
+    }
+    return versionsByChart;
+  }
+
+  private static Event nextContentEvent(Iterator<Event> events) {
+    while (events.hasNext()) {
+      Event event = events.next();
+      if (!event.is(Event.ID.StreamStart) && !event.is(Event.ID.DocumentStart)) {
+        return event;
+      }
+    }
+    return null;
+  }
+
+  private static void readEntries(
+      Iterator<Event> events,
+      Predicate<String> chartFilter,
+      Map<String, List<String>> versionsByChart) {
+    while (events.hasNext()) {
+      Event key = events.next();
+      if (key.is(Event.ID.MappingEnd)) {
+        return;
+      }
+      Event value = events.next();
+      if (key instanceof ScalarEvent chartKey
+          && value instanceof SequenceStartEvent
+          && chartFilter.test(chartKey.getValue())) {
+        versionsByChart.put(chartKey.getValue(), readChartVersions(events));
+      } else {
+        skipNode(value, events);
+      }
+    }
+  }
+
+  private static List<String> readChartVersions(Iterator<Event> events) {
+    List<String> versions = new ArrayList<>();
+    while (events.hasNext()) {
+      Event item = events.next();
+      if (item.is(Event.ID.SequenceEnd)) {
+        break;
+      }
+      if (!(item instanceof MappingStartEvent)) {
+        skipNode(item, events);
+        continue;
+      }
+      while (events.hasNext()) {
+        Event key = events.next();
+        if (key.is(Event.ID.MappingEnd)) {
+          break;
+        }
+        Event value = events.next();
+        if (isScalar(key, VERSION_KEY) && value instanceof ScalarEvent versionScalar) {
+          versions.add(versionScalar.getValue());
+        } else {
+          skipNode(value, events);
+        }
+      }
+    }
+    return versions;
+  }
+
+  private static boolean isScalar(Event event, String expectedValue) {
+    return event instanceof ScalarEvent scalar && expectedValue.equals(scalar.getValue());
+  }
+
+  /** Consumes the remainder of the node that starts with {@code first}. */
+  private static void skipNode(Event first, Iterator<Event> events) {
+    if (!(first instanceof MappingStartEvent) && !(first instanceof SequenceStartEvent)) {
+      return;
+    }
+    int depth = 1;
+    while (depth > 0 && events.hasNext()) {
+      Event event = events.next();
+      if (event instanceof MappingStartEvent || event instanceof SequenceStartEvent) {
+        depth++;
+      } else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+        depth--;
+      }
+    }
+  }
+}
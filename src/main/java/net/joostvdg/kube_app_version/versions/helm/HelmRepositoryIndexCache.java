@@ -0,0 +1,140 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.helm;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import net.joostvdg.kube_app_version.config.OutdatedArtifactsProperties;
+import net.joostvdg.kube_app_version.versions.VersionSet;
+import net.joostvdg.kube_app_version.versions.http.ConditionalHttpCache;
+import net.joostvdg.kube_app_version.versions.http.RegistryRequestThrottle;
+import net.joostvdg.kube_app_version.versions.http.VersionFetchMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.error.YAMLException;
+
+/**
+ * Caches parsed Helm repository indexes per repository URL.
+ *
+ * <p>A single download of {@code index.yaml} is turned into a compact map of chart name to {@link
+ * VersionSet}, which then answers every chart requested from that repository until the configured
+ * TTL expires. An expired index is revalidated with a conditional request and only downloaded and
+ * parsed again if it changed. Concurrent requests for the same repository wait for the one download
+ * in flight instead of starting their own.
+ */
+@Component
+public class HelmRepositoryIndexCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(HelmRepositoryIndexCache.class);
+  private final HttpClient httpClient;
+  private final RegistryRequestThrottle throttle;
+  private final ConditionalHttpCache<Map<String, VersionSet>> indexes;
+  private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+  public HelmRepositoryIndexCache(
+      HttpClient httpClient,
+      OutdatedArtifactsProperties properties,
+      VersionFetchMetrics metrics,
+      RegistryRequestThrottle throttle) {
+    this.httpClient = httpClient;
+    this.throttle = throttle;
+    this.indexes =
+        new ConditionalHttpCache<>(
+            "helm-index",
+            () -> Duration.ofMinutes(properties.getHelmIndexCacheTtlMinutes()),
+            metrics);
+  }
+
+  /**
+   * Returns the versions of a chart, downloading the repository index if it is not cached or has
+   * expired.
+   *
+   * @param repositoryUrl the Helm repository URL, without {@code /index.yaml}.
+   * @param chartName the chart to look up.
+   * @return the chart versions sorted latest first, or empty if the chart is not in the index.
+   * @throws Exception if the index cannot be downloaded or parsed.
+   */
+  public Optional<VersionSet> getChartVersions(String repositoryUrl, String chartName)
+      throws Exception {
+    String indexUrl = repositoryUrl + "/index.yaml";
+    Optional<Map<String, VersionSet>> index = indexes.getIfFresh(indexUrl);
+    if (index.isPresent()) {
+      logger.debug("Using cached Helm index for {}", repositoryUrl);
+    } else {
+      index = Optional.of(refresh(indexUrl));
+    }
+    return Optional.ofNullable(index.get().get(chartName));
+  }
+
+  private Map<String, VersionSet> refresh(String indexUrl) throws Exception {
+    ReentrantLock lock = locks.computeIfAbsent(indexUrl, url -> new ReentrantLock());
+    lock.lock();
+    try {
+      // Another caller may have refreshed the index while we were waiting for the lock
+      Optional<Map<String, VersionSet>> index = indexes.getIfFresh(indexUrl);
+      if (index.isPresent()) {
+        return index.get();
+      }
+      return download(indexUrl);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Map<String, VersionSet> download(String indexUrl) throws Exception {
+    URI indexFileURI = new URI(indexUrl);
+    logger.debug("Fetching Helm index file from: {}", indexFileURI);
+
+    HttpRequest request =
+        indexes
+            .withValidators(
+                indexUrl,
+                HttpRequest.newBuilder()
+                    .uri(indexFileURI)
+                    .header("Accept", "application/yaml, text/yaml, */*")
+                    .timeout(Duration.ofSeconds(10)))
+            .build();
+
+    HttpResponse<InputStream> response;
+    try {
+      response = throttle.send(httpClient, request, HttpResponse.BodyHandlers.ofInputStream());
+    } catch (Exception e) {
+      logger.error("Failed to send request to {}: {}", indexFileURI, e.getMessage(), e);
+      throw new Exception("Failed to send request to " + indexFileURI + ": " + e.getMessage(), e);
+    }
+
+    Map<String, List<String>> rawVersionsByChart;
+    try (InputStream body = response.body()) {
+      Optional<Map<String, VersionSet>> unchanged = indexes.reuseIfNotModified(indexUrl, response);
+      if (unchanged.isPresent()) {
+        logger.debug("Helm index {} not modified, keeping cached index", indexFileURI);
+        return unchanged.get();
+      }
+      if (response.statusCode() != 200) {
+        logger.error("Failed to fetch {}. HTTP status: {}", indexFileURI, response.statusCode());
+        throw new RuntimeException(
+            "Failed to fetch " + indexFileURI + ". HTTP status: " + response.statusCode());
+      }
+      rawVersionsByChart = HelmIndexParser.parseVersions(body, chartName -> true);
+    } catch (YAMLException e) {
+      logger.error("Failed to parse YAML from {}: {}", indexFileURI, e.getMessage(), e);
+      throw new Exception("Failed to parse YAML from " + indexFileURI + ": " + e.getMessage(), e);
+    }
+
+    Map<String, VersionSet> versionsByChart = new HashMap<>(rawVersionsByChart.size());
+    rawVersionsByChart.forEach(
+        (chartName, rawVersions) -> versionsByChart.put(chartName, VersionSet.parse(rawVersions)));
+    logger.info("Cached Helm index {} with {} charts", indexFileURI, versionsByChart.size());
+    return indexes.store(indexUrl, response, Map.copyOf(versionsByChart));
+  }
+}
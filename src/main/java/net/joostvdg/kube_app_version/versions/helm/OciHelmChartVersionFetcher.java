@@ -0,0 +1,69 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.helm;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import net.joostvdg.kube_app_version.api.model.AppArtifact;
+import net.joostvdg.kube_app_version.versions.VersionFetcher;
+import net.joostvdg.kube_app_version.versions.VersionSet;
+import net.joostvdg.kube_app_version.versions.oci.OciRegistryClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Fetches Helm chart versions from any OCI registry (Harbor, quay.io, ECR, a plain {@code
+ * registry:2}, ...). GitHub and Docker Hub have their own fetchers and are not handled here.
+ */
+@Service
+public class OciHelmChartVersionFetcher implements VersionFetcher {
+
+  private static final Logger logger = LoggerFactory.getLogger(OciHelmChartVersionFetcher.class);
+  private final OciRegistryClient registryClient;
+  private static final Pattern OCI_PATTERN = Pattern.compile("^oci://([^/]+)/(.+)$");
+  private static final Pattern DEDICATED_REGISTRY_PATTERN =
+      Pattern.compile("^(ghcr\\.io|[^/]+\\.docker\\.io)$");
+
+  public OciHelmChartVersionFetcher(OciRegistryClient registryClient) {
+    this.registryClient = registryClient;
+  }
+
+  @Override
+  public VersionSet getAvailableVersions(AppArtifact artifact) throws Exception {
+    if (!supports(artifact)) {
+      logger.warn("OciHelmChartVersionFetcher does not support artifact: {}", artifact.getSource());
+      return VersionSet.empty();
+    }
+
+    Matcher matcher = OCI_PATTERN.matcher(artifact.getSource());
+    if (!matcher.matches()) {
+      logger.error("Failed to parse OCI URL: {}", artifact.getSource());
+      return VersionSet.empty();
+    }
+    String registry = matcher.group(1);
+    String repositoryPath = String.join("/", matcher.group(2), artifact.getArtifactName());
+
+    VersionSet sortedVersions = VersionSet.parse(registryClient.listTags(registry, repositoryPath));
+    if (sortedVersions.isEmpty()) {
+      logger.warn("No versions found for {}", artifact.getSource());
+    } else {
+      logger.info(
+          "Found and sorted {} versions for OCI chart: {}",
+          sortedVersions.size(),
+          artifact.getSource());
+    }
+    return sortedVersions;
+  }
+
+  @Override
+  public boolean supports(AppArtifact artifact) {
+    if (artifact == null
+        || !"helm".equalsIgnoreCase(artifact.getArtifactType())
+        || artifact.getSource() == null) {
+      return false;
+    }
+    Matcher matcher = OCI_PATTERN.matcher(artifact.getSource());
+    return matcher.matches() && !DEDICATED_REGISTRY_PATTERN.matcher(matcher.group(1)).matches();
+  }
+}
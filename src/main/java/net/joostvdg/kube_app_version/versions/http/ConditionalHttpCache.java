@@ -0,0 +1,120 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.http;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Caches parsed payloads of remote URLs together with their HTTP validators.
+ *
+ * <p>Entries are served as-is until their TTL expires. After that, the caller sends a conditional
+ * request ({@code If-None-Match} / {@code If-Modified-Since}) and, on {@code 304 Not Modified},
+ * reuses the cached payload without downloading or parsing it again.
+ *
+ * @param <T> the parsed payload type.
+ */
+public class ConditionalHttpCache<T> {
+
+  private final String name;
+  private final Supplier<Duration> ttl;
+  private final VersionFetchMetrics metrics;
+  private final Map<String, Entry<T>> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a cache.
+   *
+   * @param name the name used to tag metrics.
+   * @param ttl supplies how long an entry is served without revalidation.
+   * @param metrics the metrics to record revalidation outcomes in.
+   */
+  public ConditionalHttpCache(String name, Supplier<Duration> ttl, VersionFetchMetrics metrics) {
+    this.name = name;
+    this.ttl = ttl;
+    this.metrics = metrics;
+  }
+
+  /** Returns the cached payload of the URL if it has not expired yet. */
+  public Optional<T> getIfFresh(String url) {
+    Entry<T> entry = entries.get(url);
+    if (entry == null || entry.fetchedAt().plus(ttl.get()).isBefore(Instant.now())) {
+      return Optional.empty();
+    }
+    return Optional.of(entry.value());
+  }
+
+  /** Adds the validators of the cached response, if any, to a request for the URL. */
+  public HttpRequest.Builder withValidators(String url, HttpRequest.Builder requestBuilder) {
+    return withValidators(url, requestBuilder, value -> true);
+  }
+
+  /**
+   * Adds the validators of the cached response to a request for the URL, but only if the cached
+   * payload would be an acceptable answer to this request, e.g. because it was not truncated.
+   */
+  public HttpRequest.Builder withValidators(
+      String url, HttpRequest.Builder requestBuilder, Predicate<T> reusable) {
+    Entry<T> entry = entries.get(url);
+    if (entry != null && reusable.test(entry.value())) {
+      if (entry.etag() != null) {
+        requestBuilder.header("If-None-Match", entry.etag());
+      }
+      if (entry.lastModified() != null) {
+        requestBuilder.header("If-Modified-Since", entry.lastModified());
+      }
+    }
+    return requestBuilder;
+  }
+
+  /**
+   * Handles a {@code 304 Not Modified} response by renewing the cached entry.
+   *
+   * @return the cached payload if the response is a 304 for a cached URL, empty otherwise.
+   */
+  public Optional<T> reuseIfNotModified(String url, HttpResponse<?> response) {
+    Entry<T> entry = entries.get(url);
+    if (response.statusCode() != 304 || entry == null) {
+      return Optional.empty();
+    }
+    entries.put(url, entry.renewed());
+    metrics.recordRevalidation(name, true);
+    return Optional.of(entry.value());
+  }
+
+  /**
+   * Stores a freshly downloaded payload along with the validators of its response. If the request
+   * was conditional, the download counts as a modified revalidation.
+   *
+   * @return the stored payload.
+   */
+  public T store(String url, HttpResponse<?> response, T value) {
+    entries.put(
+        url,
+        new Entry<>(
+            value,
+            response.headers().firstValue("ETag").orElse(null),
+            response.headers().firstValue("Last-Modified").orElse(null),
+            Instant.now()));
+    if (isConditional(response.request())) {
+      metrics.recordRevalidation(name, false);
+    }
+    return value;
+  }
+
+  private static boolean isConditional(HttpRequest request) {
+    return request.headers().firstValue("If-None-Match").isPresent()
+        || request.headers().firstValue("If-Modified-Since").isPresent();
+  }
+
+  private record Entry<T>(T value, String etag, String lastModified, Instant fetchedAt) {
+    Entry<T> renewed() {
+      return new Entry<>(value, etag, lastModified, Instant.now());
+    }
+  }
+}
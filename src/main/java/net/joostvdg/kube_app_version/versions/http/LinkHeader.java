@@ -0,0 +1,66 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.http;
+
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads pagination links from RFC 8288 {@code Link} headers, as used by the GitHub REST API and OCI
+ * registries, e.g. {@code <https://api.github.com/...?page=2>; rel="next"}.
+ */
+public final class LinkHeader {
+
+  private static final Pattern LINK_PATTERN = Pattern.compile("<([^>]*)>\\s*((?:;\\s*[^;,]+)*)");
+  private static final Pattern REL_PATTERN = Pattern.compile("(?i)rel\\s*=\\s*\"?([^\";]+)\"?");
+
+  private static final Pattern REL_TYPE = Pattern.compile("\\S+");
+
+  private final Map<String, String> linksByRel;
+
+  private LinkHeader(Map<String, String> linksByRel) {
+    this.linksByRel = linksByRel;
+  }
+
+  /** Parses all {@code Link} headers of a response. */
+  public static LinkHeader of(HttpResponse<?> response) {
+    return parse(String.join(",", response.headers().allValues("Link")));
+  }
+
+  /** Parses a {@code Link} header value. A blank value yields no links. */
+  public static LinkHeader parse(String headerValue) {
+    Map<String, String> linksByRel = new HashMap<>();
+    if (headerValue != null) {
+      Matcher link = LINK_PATTERN.matcher(headerValue);
+      while (link.find()) {
+        Matcher rel = REL_PATTERN.matcher(link.group(2));
+        if (rel.find()) {
+          // A link may carry several space separated relation types, e.g. rel="last next"
+          Matcher relType = REL_TYPE.matcher(rel.group(1));
+          while (relType.find()) {
+            linksByRel.putIfAbsent(relType.group().toLowerCase(Locale.ROOT), link.group(1));
+          }
+        }
+      }
+    }
+    return new LinkHeader(linksByRel);
+  }
+
+  /**
+   * Returns the target of the link with the given relation, resolved against the request URI since
+   * registries commonly return relative links.
+   */
+  public Optional<URI> get(String rel, URI requestUri) {
+    return Optional.ofNullable(linksByRel.get(rel)).map(requestUri::resolve);
+  }
+
+  /** Returns the target of the {@code next} link, if any. */
+  public Optional<URI> next(URI requestUri) {
+    return get("next", requestUri);
+  }
+}
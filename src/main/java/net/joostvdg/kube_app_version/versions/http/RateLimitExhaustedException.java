@@ -0,0 +1,17 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.http;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Thrown instead of sending a request to a host whose rate limit is exhausted until further away
+ * than the configured maximum wait, so that lookups fail fast rather than block until the reset.
+ */
+public class RateLimitExhaustedException extends IOException {
+  private static final long serialVersionUID = 1L;
+
+  public RateLimitExhaustedException(String host, Instant resetAt) {
+    super("Rate limit of " + host + " is exhausted until " + resetAt);
+  }
+}
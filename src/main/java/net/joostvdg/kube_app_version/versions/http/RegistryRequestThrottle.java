@@ -0,0 +1,236 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import net.joostvdg.kube_app_version.config.OutdatedArtifactsProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-host rate limiting for the requests the version fetchers send to registries.
+ *
+ * <p>Each host gets a token bucket and a cap on concurrent requests. When a registry signals that
+ * its rate limit is exhausted, through {@code 429 Too Many Requests} with {@code Retry-After} or
+ * GitHub's {@code X-RateLimit-Remaining}/{@code X-RateLimit-Reset} headers, the host is paused
+ * until the limit resets and the request is retried, so refreshes queue instead of failing. A host
+ * whose limit only resets after more than {@code maxRateLimitWaitSeconds} is not waited for: until
+ * the reset, requests to it fail fast with a {@link RateLimitExhaustedException}.
+ */
+@Component
+public class RegistryRequestThrottle {
+
+  private static final Logger logger = LoggerFactory.getLogger(RegistryRequestThrottle.class);
+  private final OutdatedArtifactsProperties properties;
+  private final VersionFetchMetrics metrics;
+  private final Map<String, HostLimiter> limiters = new ConcurrentHashMap<>();
+
+  public RegistryRequestThrottle(
+      OutdatedArtifactsProperties properties, VersionFetchMetrics metrics) {
+    this.properties = properties;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Sends a request once the host's rate limit allows it, retrying when the host answers that its
+   * rate limit is exhausted.
+   *
+   * @return the response; a rate limited response if retries are exhausted or the host asks to wait
+   *     longer than the configured maximum.
+   * @throws RateLimitExhaustedException if an earlier response exhausted the host's rate limit
+   *     until further away than the configured maximum wait.
+   */
+  public <T> HttpResponse<T> send(
+      HttpClient httpClient, HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler)
+      throws IOException, InterruptedException {
+    String host = Optional.ofNullable(request.uri().getHost()).orElse("unknown");
+    HostLimiter limiter = limiters.computeIfAbsent(host, this::newLimiter);
+    int attempt = 0;
+    while (true) {
+      HttpResponse<T> response;
+      limiter.acquire(host);
+      try {
+        response = httpClient.send(request, bodyHandler);
+      } finally {
+        limiter.release();
+      }
+
+      Optional<Instant> resumeAt = rateLimitResumeTime(response);
+      if (resumeAt.isEmpty()) {
+        return response;
+      }
+
+      metrics.recordThrottled(host);
+      Duration wait = Duration.between(Instant.now(), resumeAt.get());
+      boolean waitTooLong = wait.toSeconds() > properties.getMaxRateLimitWaitSeconds();
+      if (waitTooLong) {
+        // Never block the host for longer than the maximum wait, fail fast until the reset instead
+        limiter.exhaustedUntil(resumeAt.get());
+      } else {
+        limiter.pauseUntil(resumeAt.get());
+      }
+      if (!isRateLimited(response)) {
+        // The request went through but used up the budget, the pause applies to the next one
+        return response;
+      }
+      if (++attempt > properties.getMaxRateLimitRetries() || waitTooLong) {
+        logger.warn(
+            "Rate limit of {} exhausted, giving up on {} (attempt {}, wait {}s)",
+            host,
+            request.uri(),
+            attempt,
+            wait.toSeconds());
+        return response;
+      }
+      logger.info(
+          "Rate limited by {}, retrying {} in {}s (attempt {})",
+          host,
+          request.uri(),
+          Math.max(0, wait.toSeconds()),
+          attempt);
+      discard(response);
+    }
+  }
+
+  private HostLimiter newLimiter(String host) {
+    return new HostLimiter(
+        properties.getRequestsPerSecondPerHost(), properties.getMaxConcurrentRequestsPerHost());
+  }
+
+  private static boolean isRateLimited(HttpResponse<?> response) {
+    return response.statusCode() == 429
+        || (response.statusCode() == 403
+            && response.headers().firstValue("X-RateLimit-Remaining").orElse("").equals("0"));
+  }
+
+  /** Determines until when a host asked us to hold off, if it did. */
+  private static Optional<Instant> rateLimitResumeTime(HttpResponse<?> response) {
+    Optional<String> retryAfter = response.headers().firstValue("Retry-After");
+    if (retryAfter.isPresent() && (response.statusCode() == 429 || response.statusCode() == 503)) {
+      Optional<Instant> resumeAt = parseRetryAfter(retryAfter.get());
+      if (resumeAt.isPresent()) {
+        return resumeAt;
+      }
+    }
+    if (response.headers().firstValue("X-RateLimit-Remaining").orElse("").equals("0")) {
+      Optional<String> reset = response.headers().firstValue("X-RateLimit-Reset");
+      if (reset.isPresent()) {
+        try {
+          return Optional.of(Instant.ofEpochSecond(Long.parseLong(reset.get().trim())));
+        } catch (NumberFormatException e) {
+          logger.debug("Ignoring unparsable X-RateLimit-Reset header: {}", reset.get());
+        }
+      }
+    }
+    if (response.statusCode() == 429) {
+      // Rate limited without telling us for how long, back off for a second
+      return Optional.of(Instant.now().plusSeconds(1));
+    }
+    return Optional.empty();
+  }
+
+  private static Optional<Instant> parseRetryAfter(String retryAfter) {
+    String value = retryAfter.trim();
+    try {
+      return Optional.of(Instant.now().plusSeconds(Long.parseLong(value)));
+    } catch (NumberFormatException e) {
+      // Not delay-seconds, so it should be an HTTP-date
+    }
+    try {
+      return Optional.of(
+          ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME.withLocale(Locale.ROOT))
+              .toInstant());
+    } catch (DateTimeParseException e) {
+      logger.debug("Ignoring unparsable Retry-After header: {}", retryAfter);
+      return Optional.empty();
+    }
+  }
+
+  private static void discard(HttpResponse<?> response) throws IOException {
+    if (response.body() instanceof Closeable body) {
+      body.close();
+    }
+  }
+
+  /** Token bucket plus concurrency cap for a single host. */
+  private static final class HostLimiter {
+    private final double tokensPerNano;
+    private final double burst;
+    private final Semaphore concurrentRequests;
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+    private Instant pausedUntil = Instant.EPOCH;
+    private Instant exhaustedUntil = Instant.EPOCH;
+
+    HostLimiter(double requestsPerSecond, int maxConcurrentRequests) {
+      this.tokensPerNano = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+      this.burst = Math.max(1, requestsPerSecond);
+      this.tokens = burst;
+      this.concurrentRequests = new Semaphore(maxConcurrentRequests, true);
+    }
+
+    void acquire(String host) throws InterruptedException, RateLimitExhaustedException {
+      long waitNanos;
+      while ((waitNanos = reserve(host)) > 0) {
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+      }
+      concurrentRequests.acquire();
+    }
+
+    void release() {
+      concurrentRequests.release();
+    }
+
+    /** Holds off requests until the given time, which is at most the maximum wait away. */
+    synchronized void pauseUntil(Instant until) {
+      if (until.isAfter(pausedUntil)) {
+        pausedUntil = until;
+      }
+    }
+
+    /** Rejects requests until the given time, which is too far away to wait for. */
+    synchronized void exhaustedUntil(Instant until) {
+      if (until.isAfter(exhaustedUntil)) {
+        exhaustedUntil = until;
+      }
+    }
+
+    /**
+     * Takes a token if one is available, otherwise returns how long to wait for one.
+     *
+     * @throws RateLimitExhaustedException if the host's rate limit is exhausted for too long.
+     */
+    private synchronized long reserve(String host) throws RateLimitExhaustedException {
+      Instant now = Instant.now();
+      if (now.isBefore(exhaustedUntil)) {
+        throw new RateLimitExhaustedException(host, exhaustedUntil);
+      }
+      if (now.isBefore(pausedUntil)) {
+        return Duration.between(now, pausedUntil).toNanos();
+      }
+      long nowNanos = System.nanoTime();
+      tokens = Math.min(burst, tokens + (nowNanos - lastRefillNanos) * tokensPerNano);
+      lastRefillNanos = nowNanos;
+      if (tokens >= 1) {
+        tokens -= 1;
+        return 0;
+      }
+      return Math.max(1, (long) ((1 - tokens) / tokensPerNano));
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import net.joostvdg.kube_app_version.versions.util.SingleFlight;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches registry bearer tokens per service and scope (e.g. {@code repository:<path>:pull}).
+ *
+ * <p>Tokens are reused until shortly before they expire, based on the {@code expires_in} and {@code
+ * issued_at} fields of the token response. Once three quarters of a token's lifetime have passed it
+ * is refreshed in the background while the current token is still handed out, so callers do not
+ * have to wait for a token round trip.
+ */
+@Component
+public class RegistryTokenCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(RegistryTokenCache.class);
+  // Per the Docker token spec, tokens without expires_in are valid for 60 seconds
+  private static final Duration DEFAULT_LIFETIME = Duration.ofSeconds(60);
+  private static final Duration EXPIRY_MARGIN = Duration.ofSeconds(5);
+  private final Map<String, BearerToken> tokens = new ConcurrentHashMap<>();
+  private final SingleFlight<String, BearerToken> refreshes = new SingleFlight<>();
+  // The keys with a background refresh in flight, so lookups meanwhile do not start another one
+  private final Set<String> backgroundRefreshes = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Returns a valid token for the key, requesting a new one if there is none.
+   *
+   * @param key identifies the token, e.g. the auth service and scope.
+   * @param tokenRequest requests a new token from the auth service.
+   * @return the bearer token.
+   * @throws Exception if a token is needed and cannot be requested.
+   */
+  public String getToken(String key, Callable<BearerToken> tokenRequest) throws Exception {
+    BearerToken cached = tokens.get(key);
+    Instant now = Instant.now();
+    if (cached != null && cached.isValidAt(now)) {
+      if (cached.isDueForRefreshAt(now)) {
+        refreshInBackground(key, tokenRequest);
+      }
+      return cached.token();
+    }
+    return refresh(key, tokenRequest).token();
+  }
+
+  private BearerToken refresh(String key, Callable<BearerToken> tokenRequest) throws Exception {
+    return refreshes.execute(
+        key,
+        () -> {
+          BearerToken token = tokenRequest.call();
+          tokens.put(key, token);
+          return token;
+        });
+  }
+
+  private void refreshInBackground(String key, Callable<BearerToken> tokenRequest) {
+    if (!backgroundRefreshes.add(key)) {
+      return;
+    }
+    Thread.ofVirtual()
+        .name("registry-token-refresh")
+        .start(
+            () -> {
+              try {
+                refresh(key, tokenRequest);
+                logger.debug("Refreshed registry token for {}", key);
+              } catch (Exception e) {
+                // The current token is handed out until it expires, the next lookup retries
+                logger.warn("Failed to refresh registry token for {}: {}", key, e.getMessage());
+              } finally {
+                backgroundRefreshes.remove(key);
+              }
+            });
+  }
+
+  /**
+   * A bearer token with its validity window.
+   *
+   * @param token the token to send as {@code Authorization: Bearer}.
+   * @param issuedAt when the token was issued.
+   * @param expiresAt when the token expires.
+   */
+  public record BearerToken(String token, Instant issuedAt, Instant expiresAt) {
+
+    /**
+     * Reads a token response as described by the Docker registry token authentication spec.
+     *
+     * @param json the token response body.
+     * @return the token, or {@code null} if the response holds no token.
+     */
+    public static BearerToken fromResponse(JsonNode json) {
+      String token = json.path("token").asText(json.path("access_token").asText(""));
+      if (token.isEmpty()) {
+        return null;
+      }
+      Instant issuedAt = Instant.now();
+      String issuedAtText = json.path("issued_at").asText("");
+      if (!issuedAtText.isEmpty()) {
+        try {
+          issuedAt = Instant.parse(issuedAtText);
+        } catch (DateTimeParseException e) {
+          logger.debug("Ignoring unparsable issued_at in token response: {}", issuedAtText);
+        }
+      }
+      long expiresIn = json.path("expires_in").asLong(0);
+      Duration lifetime =
+          expiresIn >= DEFAULT_LIFETIME.toSeconds()
+              ? Duration.ofSeconds(expiresIn)
+              : DEFAULT_LIFETIME;
+      return new BearerToken(token, issuedAt, issuedAt.plus(lifetime));
+    }
+
+    boolean isValidAt(Instant instant) {
+      return instant.isBefore(expiresAt.minus(EXPIRY_MARGIN));
+    }
+
+    boolean isDueForRefreshAt(Instant instant) {
+      Duration lifetime = Duration.between(issuedAt, expiresAt);
+      return instant.isAfter(issuedAt.plus(lifetime.multipliedBy(3).dividedBy(4)));
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+/** Micrometer metrics shared by the version fetchers. */
+@Component
+public class VersionFetchMetrics {
+
+  private static final String REVALIDATION_METRIC = "kav.fetcher.revalidation";
+  private final MeterRegistry meterRegistry;
+  private final Map<String, RevalidationCounters> revalidations = new ConcurrentHashMap<>();
+
+  public VersionFetchMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Records the outcome of a conditional request.
+   *
+   * @param cacheName the cache (fetcher) that sent the request.
+   * @param notModified true if the remote answered 304 and the cached payload was reused.
+   */
+  public void recordRevalidation(String cacheName, boolean notModified) {
+    RevalidationCounters counters =
+        revalidations.computeIfAbsent(cacheName, this::registerRevalidationMeters);
+    if (notModified) {
+      counters.notModified().increment();
+    } else {
+      counters.modified().increment();
+    }
+  }
+
+  /**
+   * Records that a registry host signalled an exhausted rate limit.
+   *
+   * @param host the registry host.
+   */
+  public void recordThrottled(String host) {
+    Counter.builder("kav.fetcher.rate.limited")
+        .description("Responses signalling an exhausted registry rate limit")
+        .tag("host", host)
+        .register(meterRegistry)
+        .increment();
+  }
+
+  private RevalidationCounters registerRevalidationMeters(String cacheName) {
+    Counter notModified =
+        Counter.builder(REVALIDATION_METRIC)
+            .description("Conditional requests sent for cached remote payloads")
+            .tag("cache", cacheName)
+            .tag("result", "not_modified")
+            .register(meterRegistry);
+    Counter modified =
+        Counter.builder(REVALIDATION_METRIC)
+            .description("Conditional requests sent for cached remote payloads")
+            .tag("cache", cacheName)
+            .tag("result", "modified")
+            .register(meterRegistry);
+    RevalidationCounters counters = new RevalidationCounters(notModified, modified);
+    Gauge.builder(REVALIDATION_METRIC + ".hit.ratio", counters, RevalidationCounters::hitRatio)
+        .description("Share of conditional requests answered with 304 Not Modified")
+        .tag("cache", cacheName)
+        .register(meterRegistry);
+    return counters;
+  }
+
+  private record RevalidationCounters(Counter notModified, Counter modified) {
+    double hitRatio() {
+      double total = notModified.count() + modified.count();
+      return total == 0 ? 0 : notModified.count() / total;
+    }
+  }
+}
@@ -0,0 +1,63 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.image;
+
+import java.util.List;
+import java.util.Optional;
+import net.joostvdg.kube_app_version.api.model.AppArtifact;
+import net.joostvdg.kube_app_version.versions.VersionFetcher;
+import net.joostvdg.kube_app_version.versions.VersionSet;
+import net.joostvdg.kube_app_version.versions.oci.OciRegistryClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Fetches the available tags of {@code containerImage} artifacts from the image's registry (Docker
+ * Hub, ghcr.io or any other OCI registry).
+ *
+ * <p>Image repositories tend to carry many tags that are not versions at all ({@code latest},
+ * branch names, commit hashes, signature and attestation tags). These are rejected by {@link
+ * net.joostvdg.kube_app_version.versions.util.VersionTagScanner} before any parsing.
+ */
+@Service
+public class ContainerImageVersionFetcher implements VersionFetcher {
+
+  private static final Logger logger = LoggerFactory.getLogger(ContainerImageVersionFetcher.class);
+  private final OciRegistryClient registryClient;
+
+  public ContainerImageVersionFetcher(OciRegistryClient registryClient) {
+    this.registryClient = registryClient;
+  }
+
+  @Override
+  public VersionSet getAvailableVersions(AppArtifact artifact) throws Exception {
+    if (!supports(artifact)) {
+      logger.warn(
+          "ContainerImageVersionFetcher does not support artifact: {}", artifact.getSource());
+      return VersionSet.empty();
+    }
+
+    Optional<ImageReference> image = ImageReference.parse(artifact.getSource());
+    if (image.isEmpty()) {
+      logger.error("Failed to parse container image reference: {}", artifact.getSource());
+      return VersionSet.empty();
+    }
+
+    List<String> tags = registryClient.listTags(image.get().registry(), image.get().repository());
+    VersionSet sortedVersions = VersionSet.parse(tags);
+    logger.debug(
+        "Found {} versions among {} tags of container image {}/{}",
+        sortedVersions.size(),
+        tags.size(),
+        image.get().registry(),
+        image.get().repository());
+    return sortedVersions;
+  }
+
+  @Override
+  public boolean supports(AppArtifact artifact) {
+    return artifact != null
+        && "containerImage".equalsIgnoreCase(artifact.getArtifactType())
+        && artifact.getSource() != null;
+  }
+}
@@ -0,0 +1,72 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.image;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * A container image reference such as {@code nginx:1.25}, {@code ghcr.io/org/app:v1.2.0} or {@code
+ * registry.example.com:5000/team/app@sha256:...}, normalized the way the Docker CLI does it.
+ *
+ * @param registry the registry host (and port) to query, e.g. {@code registry-1.docker.io}.
+ * @param repository the repository within the registry, e.g. {@code library/nginx}.
+ * @param tag the tag, or null if the reference has none.
+ */
+public record ImageReference(String registry, String repository, String tag) {
+
+  static final String DOCKER_HUB_REGISTRY = "registry-1.docker.io";
+
+  /**
+   * Parses an image reference.
+   *
+   * @return the reference, or empty if it has no repository.
+   */
+  public static Optional<ImageReference> parse(String reference) {
+    if (reference == null || reference.isBlank()) {
+      return Optional.empty();
+    }
+    String remainder = reference.trim();
+    int digestIndex = remainder.indexOf('@');
+    if (digestIndex >= 0) {
+      remainder = remainder.substring(0, digestIndex);
+    }
+
+    String tag = null;
+    int tagIndex = remainder.lastIndexOf(':');
+    if (tagIndex > remainder.lastIndexOf('/')) {
+      tag = remainder.substring(tagIndex + 1);
+      remainder = remainder.substring(0, tagIndex);
+    }
+
+    String registry = DOCKER_HUB_REGISTRY;
+    int slashIndex = remainder.indexOf('/');
+    if (slashIndex > 0) {
+      String firstComponent = remainder.substring(0, slashIndex);
+      // Like Docker, only treat the first component as a host if it looks like one
+      if (firstComponent.contains(".")
+          || firstComponent.contains(":")
+          || "localhost".equals(firstComponent)) {
+        registry = normalizeRegistry(firstComponent);
+        remainder = remainder.substring(slashIndex + 1);
+      }
+    }
+    if (remainder.isEmpty()) {
+      return Optional.empty();
+    }
+    if (DOCKER_HUB_REGISTRY.equals(registry) && remainder.indexOf('/') < 0) {
+      remainder = "library/" + remainder;
+    }
+    return Optional.of(new ImageReference(registry, remainder, tag));
+  }
+
+  /**
+   * Normalizes a registry host the way the Docker CLI does, so that the aliases of Docker Hub all
+   * name the host that is actually queried.
+   */
+  public static String normalizeRegistry(String registry) {
+    return switch (registry.toLowerCase(Locale.ROOT)) {
+      case "docker.io", "index.docker.io" -> DOCKER_HUB_REGISTRY;
+      default -> registry.toLowerCase(Locale.ROOT);
+    };
+  }
+}
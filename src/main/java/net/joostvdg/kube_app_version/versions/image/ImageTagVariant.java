@@ -0,0 +1,48 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.image;
+
+import com.github.zafarkhaja.semver.Version;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.joostvdg.kube_app_version.versions.VersionSet;
+
+/**
+ * The variant of a container image tag: the suffix after its version, such as {@code alpine} in
+ * {@code 1.25-alpine} or {@code bookworm} in {@code 7.2.4-bookworm}, or none for a plain tag.
+ *
+ * <p>Semantic versioning reads the suffix as a pre-release, which orders {@code 1.25-alpine} before
+ * {@code 1.25} and offers an image deployed from one variant the tags of another. Tags are
+ * therefore only compared with tags of the same variant, on their versions without the suffix. A
+ * suffix meant as a pre-release, such as {@code rc.1}, is treated the same way, so an image
+ * deployed from a plain tag is only offered plain tags.
+ *
+ * @param suffix the suffix after the version, without the hyphen, or empty for a plain tag.
+ */
+public record ImageTagVariant(String suffix) {
+
+  public static ImageTagVariant of(Version tag) {
+    return new ImageTagVariant(tag.preReleaseVersion().orElse(""));
+  }
+
+  /**
+   * The tags of this variant, as versions without the suffix that keep their original tags, so that
+   * they are reported as tags of this variant.
+   */
+  public VersionSet select(VersionSet tags) {
+    List<Version> versions = tags.versions();
+    Map<Version, String> variantTags = new HashMap<>();
+    for (int i = 0; i < versions.size(); i++) {
+      Version tag = versions.get(i);
+      if (suffix.equals(tag.preReleaseVersion().orElse(""))) {
+        variantTags.putIfAbsent(tag.toStableVersion(), tags.tags().get(i));
+      }
+    }
+    return VersionSet.tagged(variantTags);
+  }
+
+  /** The version of a tag of this variant, without the suffix. */
+  public Version strip(Version tag) {
+    return tag.toStableVersion();
+  }
+}
@@ -0,0 +1,67 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.oci;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A {@code WWW-Authenticate} challenge as sent by an OCI registry on {@code 401 Unauthorized}, e.g.
+ * {@code Bearer realm="https://auth.docker.io/token",service="registry.docker.io"}.
+ *
+ * @param scheme the lower case authentication scheme, e.g. {@code bearer}.
+ * @param parameters the challenge parameters by lower case name.
+ */
+public record AuthChallenge(String scheme, Map<String, String> parameters) {
+
+  private static final Pattern SCHEME_PATTERN = Pattern.compile("^\\s*([A-Za-z][\\w-]*)\\s*");
+  private static final Pattern PARAMETER_PATTERN =
+      Pattern.compile("([\\w-]+)\\s*=\\s*(?:\"((?:[^\"\\\\]|\\\\.)*)\"|([^,\\s]*))");
+
+  public AuthChallenge {
+    parameters = Map.copyOf(parameters);
+  }
+
+  /**
+   * Parses a {@code WWW-Authenticate} header value.
+   *
+   * @return the challenge, or empty if the value is blank or has no scheme.
+   */
+  public static Optional<AuthChallenge> parse(String headerValue) {
+    if (headerValue == null) {
+      return Optional.empty();
+    }
+    Matcher scheme = SCHEME_PATTERN.matcher(headerValue);
+    if (!scheme.find()) {
+      return Optional.empty();
+    }
+    Map<String, String> parameters = new HashMap<>();
+    Matcher parameter = PARAMETER_PATTERN.matcher(headerValue);
+    parameter.region(scheme.end(), headerValue.length());
+    while (parameter.find()) {
+      String value =
+          parameter.group(2) != null
+              ? parameter.group(2).replaceAll("\\\\(.)", "$1")
+              : parameter.group(3);
+      parameters.putIfAbsent(parameter.group(1).toLowerCase(Locale.ROOT), value);
+    }
+    return Optional.of(new AuthChallenge(scheme.group(1).toLowerCase(Locale.ROOT), parameters));
+  }
+
+  public boolean isBearer() {
+    return "bearer".equals(scheme);
+  }
+
+  /** The URL of the token service. */
+  public String realm() {
+    return parameters.get("realm");
+  }
+
+  /** The name of the service the token is for, may be null. */
+  public String service() {
+    return parameters.get("service");
+  }
+}
@@ -0,0 +1,270 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.oci;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import net.joostvdg.kube_app_version.config.OutdatedArtifactsProperties;
+import net.joostvdg.kube_app_version.versions.http.ConditionalHttpCache;
+import net.joostvdg.kube_app_version.versions.http.LinkHeader;
+import net.joostvdg.kube_app_version.versions.http.RegistryRequestThrottle;
+import net.joostvdg.kube_app_version.versions.http.RegistryTokenCache;
+import net.joostvdg.kube_app_version.versions.http.VersionFetchMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lists repository tags of any registry implementing the OCI Distribution spec.
+ *
+ * <p>Registries that answer with a {@code 401} and a Bearer {@code WWW-Authenticate} challenge are
+ * accessed with an anonymous pull token from the announced token service. The challenge is
+ * remembered per registry, so later requests send a (cached) token up front instead of being
+ * rejected first. Tags are read page by page, following the {@code Link} header, and each page is
+ * parsed as it streams in.
+ */
+@Component
+public class OciRegistryClient {
+
+  private static final Logger logger = LoggerFactory.getLogger(OciRegistryClient.class);
+  // Safety net against endless pagination
+  private static final int MAX_PAGES = 1000;
+  private final HttpClient httpClient;
+  private final OutdatedArtifactsProperties properties;
+  private final RegistryRequestThrottle throttle;
+  private final RegistryTokenCache tokenCache;
+  private final ConditionalHttpCache<TagListing> tagCache;
+  private final Map<String, AuthChallenge> challengesByRegistry = new ConcurrentHashMap<>();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  public OciRegistryClient(
+      OutdatedArtifactsProperties properties,
+      VersionFetchMetrics metrics,
+      RegistryRequestThrottle throttle,
+      RegistryTokenCache tokenCache) {
+    this.properties = properties;
+    this.throttle = throttle;
+    this.tokenCache = tokenCache;
+    this.httpClient =
+        HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    this.tagCache =
+        new ConditionalHttpCache<>(
+            "oci-tags", () -> Duration.ofMinutes(properties.getRegistryCacheTtlMinutes()), metrics);
+  }
+
+  /**
+   * Lists all tags of a repository.
+   *
+   * @param registry the registry host, with an optional port, e.g. {@code registry-1.docker.io}.
+   * @param repository the repository name, e.g. {@code bitnamicharts/redis}.
+   * @return the tags in the order returned by the registry.
+   * @throws Exception if the registry cannot be reached, denies access or returns an error.
+   */
+  public List<String> listTags(String registry, String repository) throws Exception {
+    URI firstPage =
+        URI.create(
+            scheme(registry)
+                + "://"
+                + registry
+                + "/v2/"
+                + repository
+                + "/tags/list?n="
+                + properties.getOciTagsPageSize());
+    String cacheKey = firstPage.toString();
+    Optional<TagListing> cachedTags = tagCache.getIfFresh(cacheKey);
+    if (cachedTags.isPresent()) {
+      logger.debug("Returning cached tags for {}", firstPage);
+      return cachedTags.get().tags();
+    }
+
+    List<String> tags = new ArrayList<>();
+    HttpResponse<InputStream> firstResponse = null;
+    URI page = firstPage;
+    int pageCount = 0;
+    while (page != null) {
+      if (pageCount >= MAX_PAGES) {
+        logger.warn("Stopped listing tags of {} after {} pages", firstPage, pageCount);
+        break;
+      }
+      logger.debug("Fetching OCI tags from: {}", page);
+      HttpRequest.Builder request = newRequest(page);
+      if (pageCount == 0) {
+        // Pages are not ordered by age, so an unchanged first page only proves anything if it
+        // was the only page
+        tagCache.withValidators(cacheKey, request, TagListing::singlePage);
+      }
+      HttpResponse<InputStream> response = sendAuthorized(registry, repository, request);
+      try (InputStream body = response.body()) {
+        if (pageCount == 0) {
+          Optional<TagListing> unchangedTags = tagCache.reuseIfNotModified(cacheKey, response);
+          if (unchangedTags.isPresent()) {
+            logger.debug("Tags of {} not modified, keeping cached tags", firstPage);
+            return unchangedTags.get().tags();
+          }
+          firstResponse = response;
+        }
+        if (response.statusCode() != 200) {
+          logger.error("Failed to list tags from {}. HTTP status: {}", page, response.statusCode());
+          throw new RuntimeException(
+              "Failed to list tags from " + page + ". HTTP status: " + response.statusCode());
+        }
+        tags.addAll(readTags(body));
+      }
+      pageCount++;
+      URI current = page;
+      page =
+          LinkHeader.of(response).next(current).filter(next -> !next.equals(current)).orElse(null);
+    }
+
+    logger.debug("Listed {} tags of {} in {} pages", tags.size(), firstPage, pageCount);
+    return tagCache
+        .store(cacheKey, firstResponse, new TagListing(List.copyOf(tags), pageCount == 1))
+        .tags();
+  }
+
+  private String scheme(String registry) {
+    return properties.getPlainHttpRegistries().contains(registry) ? "http" : "https";
+  }
+
+  private static HttpRequest.Builder newRequest(URI uri) {
+    return HttpRequest.newBuilder()
+        .uri(uri)
+        .header("Accept", "application/json")
+        .timeout(Duration.ofSeconds(15));
+  }
+
+  /**
+   * Sends a registry request, answering a Bearer challenge with an anonymous token if the registry
+   * asks for one.
+   */
+  private HttpResponse<InputStream> sendAuthorized(
+      String registry, String repository, HttpRequest.Builder request) throws Exception {
+    AuthChallenge knownChallenge = challengesByRegistry.get(registry);
+    if (knownChallenge != null) {
+      request.setHeader("Authorization", "Bearer " + token(knownChallenge, repository));
+    }
+    HttpResponse<InputStream> response =
+        throttle.send(httpClient, request.build(), HttpResponse.BodyHandlers.ofInputStream());
+    if (response.statusCode() != 401) {
+      return response;
+    }
+
+    response.body().close();
+    String header = response.headers().firstValue("WWW-Authenticate").orElse(null);
+    AuthChallenge challenge =
+        AuthChallenge.parse(header)
+            .filter(AuthChallenge::isBearer)
+            .filter(parsed -> parsed.realm() != null)
+            .orElseThrow(
+                () ->
+                    new RuntimeException(
+                        "Registry "
+                            + registry
+                            + " requires unsupported authentication: "
+                            + header));
+    if (challenge.equals(knownChallenge)) {
+      throw new RuntimeException(
+          "Anonymous pull access to " + registry + "/" + repository + " was denied");
+    }
+    challengesByRegistry.put(registry, challenge);
+
+    request.setHeader("Authorization", "Bearer " + token(challenge, repository));
+    response =
+        throttle.send(httpClient, request.build(), HttpResponse.BodyHandlers.ofInputStream());
+    if (response.statusCode() == 401) {
+      response.body().close();
+      throw new RuntimeException(
+          "Anonymous pull access to " + registry + "/" + repository + " was denied");
+    }
+    return response;
+  }
+
+  private String token(AuthChallenge challenge, String repository) throws Exception {
+    String scope = "repository:" + repository + ":pull";
+    return tokenCache.getToken(
+        challenge.realm() + "|" + challenge.service() + "|" + scope,
+        () -> requestToken(challenge, scope));
+  }
+
+  private RegistryTokenCache.BearerToken requestToken(AuthChallenge challenge, String scope)
+      throws Exception {
+    StringBuilder tokenUrl = new StringBuilder(challenge.realm());
+    tokenUrl.append(challenge.realm().contains("?") ? '&' : '?');
+    if (challenge.service() != null) {
+      tokenUrl
+          .append("service=")
+          .append(URLEncoder.encode(challenge.service(), StandardCharsets.UTF_8))
+          .append('&');
+    }
+    tokenUrl.append("scope=").append(URLEncoder.encode(scope, StandardCharsets.UTF_8));
+
+    logger.debug("Getting anonymous registry token from: {}", tokenUrl);
+    HttpRequest tokenRequest = newRequest(URI.create(tokenUrl.toString())).build();
+    HttpResponse<String> tokenResponse =
+        throttle.send(httpClient, tokenRequest, HttpResponse.BodyHandlers.ofString());
+    if (tokenResponse.statusCode() != 200) {
+      logger.error(
+          "Failed to get registry token from {}. HTTP status: {} - {}",
+          challenge.realm(),
+          tokenResponse.statusCode(),
+          tokenResponse.body());
+      throw new RuntimeException(
+          "Failed to get registry token from "
+              + challenge.realm()
+              + ". HTTP status: "
+              + tokenResponse.statusCode());
+    }
+
+    RegistryTokenCache.BearerToken token =
+        RegistryTokenCache.BearerToken.fromResponse(objectMapper.readTree(tokenResponse.body()));
+    if (token == null) {
+      throw new RuntimeException("Empty token received from " + challenge.realm());
+    }
+    return token;
+  }
+
+  /** Reads the {@code tags} array of a tags/list page without building a JSON tree. */
+  private List<String> readTags(InputStream body) throws IOException {
+    List<String> tags = new ArrayList<>();
+    try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return tags;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        JsonToken value = parser.nextToken();
+        if ("tags".equals(field) && value == JsonToken.START_ARRAY) {
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            String tag = parser.getValueAsString();
+            if (tag != null && !tag.isEmpty()) {
+              tags.add(tag);
+            }
+          }
+        } else {
+          parser.skipChildren();
+        }
+      }
+    }
+    return tags;
+  }
+
+  /** The tags of a repository, and whether the registry returned them in a single page. */
+  private record TagListing(List<String> tags, boolean singlePage) {}
+}
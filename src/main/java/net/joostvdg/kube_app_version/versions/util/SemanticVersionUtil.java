@@ -1,123 +1,122 @@
 /* (C)2025 */
 package net.joostvdg.kube_app_version.versions.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.zafarkhaja.semver.Version;
-import java.util.Collections;
-import java.util.List;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class SemanticVersionUtil {
 
   private static final Logger logger = LoggerFactory.getLogger(SemanticVersionUtil.class);
-  // Pattern to identify versions like "X.Y" (e.g., "1.2", "10.0")
-  private static final Pattern XY_PATTERN = Pattern.compile("^(\\d+\\.\\d+)$");
-  // Pattern to identify versions like "X.Y-prerelease" (e.g., "1.2-alpha", "10.0-beta.1")
-  private static final Pattern XY_PRERELEASE_PATTERN =
-      Pattern.compile("^(\\d+\\.\\d+)-([a-zA-Z0-9][a-zA-Z0-9.-]*)$");
 
-  public static Optional<Version> parseVersion(String versionStr) {
-    if (versionStr == null) {
-      return Optional.empty();
-    }
+  static final long PARSE_CACHE_MAXIMUM_SIZE = 50_000;
 
-    String originalVersionString = versionStr;
-    String processedString = versionStr;
+  // Versions are immutable, so every caller can share the parsed instance. Strings that cannot be
+  // parsed are cached as empty, so their failed parse and warning only run once as well.
+  private static final Cache<String, Optional<Version>> PARSE_CACHE =
+      Caffeine.newBuilder().maximumSize(PARSE_CACHE_MAXIMUM_SIZE).recordStats().build();
 
-    if (processedString.startsWith("v")) {
-      processedString = processedString.substring(1);
+  /**
+   * Parses a version string, normalizing a leading {@code v} and the {@code X} and {@code X.Y}
+   * forms (with or without pre-release). Strings that {@link VersionTagScanner} rejects are not
+   * parsed at all; the results for the other strings, including failures, are memoized per distinct
+   * string.
+   *
+   * @param versionStr the version string.
+   * @return the parsed version, or empty if the string is not a (normalizable) semantic version.
+   */
+  public static Optional<Version> parseVersion(String versionStr) {
+    if (!VersionTagScanner.isCandidate(versionStr)) {
+      return Optional.empty();
     }
+    return PARSE_CACHE.get(versionStr, SemanticVersionUtil::parseUncached);
+  }
 
-    Optional<Version> parsedOpt;
-
-    parsedOpt = Version.tryParse(processedString, false);
-    if (parsedOpt.isPresent()) {
-      return parsedOpt;
-    }
+  /** Returned by {@link #packVersion(Version)} for versions that do not fit in a long. */
+  public static final long UNPACKABLE = -1;
 
-    Matcher xyMatcher = XY_PATTERN.matcher(processedString);
-    if (xyMatcher.matches()) {
-      String majorMinor = xyMatcher.group(1);
-      String normalizedVersion = majorMinor + ".0";
-      logger.debug(
-          "Normalizing X.Y format: '{}' (original: '{}') to '{}'",
-          processedString,
-          originalVersionString,
-          normalizedVersion);
-      parsedOpt = Version.tryParse(normalizedVersion, false);
-      if (parsedOpt.isPresent()) {
-        return parsedOpt;
-      } else {
-        logger.warn(
-            "Normalization of X.Y format to '{}' still resulted in unparsable version. Original:"
-                + " '{}'",
-            normalizedVersion,
-            originalVersionString);
-      }
-    }
+  private static final int MAJOR_BITS = 20;
+  private static final int MINOR_BITS = 20;
+  private static final int PATCH_BITS = 22;
 
-    Matcher xyPrereleaseMatcher = XY_PRERELEASE_PATTERN.matcher(processedString);
-    if (xyPrereleaseMatcher.matches()) {
-      String majorMinor = xyPrereleaseMatcher.group(1);
-      String prerelease = xyPrereleaseMatcher.group(2);
-      String normalizedVersion = majorMinor + ".0-" + prerelease;
-      logger.debug(
-          "Normalizing X.Y-prerelease format: '{}' (original: '{}') to '{}'",
-          processedString,
-          originalVersionString,
-          normalizedVersion);
-      parsedOpt = Version.tryParse(normalizedVersion, false);
-      if (parsedOpt.isPresent()) {
-        return parsedOpt;
-      } else {
-        logger.warn(
-            "Normalization of X.Y-prerelease format to '{}' still resulted in unparsable version."
-                + " Original: '{}'",
-            normalizedVersion,
-            originalVersionString);
-      }
+  /**
+   * Packs the major, minor and patch version into a single long whose natural order is the semantic
+   * version order, up to pre-release and build metadata details. The lowest bit is set for
+   * releases, so that a release sorts above the pre-releases of the same version.
+   *
+   * @param version the version to pack.
+   * @return the packed version, or {@link #UNPACKABLE} if a component is too large to pack (such as
+   *     a date used as patch version).
+   */
+  public static long packVersion(Version version) {
+    long major = version.majorVersion();
+    long minor = version.minorVersion();
+    long patch = version.patchVersion();
+    if (major >>> MAJOR_BITS != 0 || minor >>> MINOR_BITS != 0 || patch >>> PATCH_BITS != 0) {
+      return UNPACKABLE;
     }
+    return major << (MINOR_BITS + PATCH_BITS + 1)
+        | minor << (PATCH_BITS + 1)
+        | patch << 1
+        | (version.isPreRelease() ? 0 : 1);
+  }
 
-    if (!parsedOpt.isPresent()) {
-      logger.warn(
-          "Invalid semantic version format, all normalization attempts failed. Original: '{}',"
-              + " Cleaned: '{}'.",
-          originalVersionString,
-          processedString);
-    }
-    return parsedOpt;
+  /**
+   * Compares two versions by their packed form, falling back to a full comparison for pre-releases
+   * and build metadata of the same version and for versions that cannot be packed. Orders exactly
+   * like {@link Version#compareTo(Version)}.
+   */
+  public static int compare(Version a, Version b) {
+    return compare(packVersion(a), a, packVersion(b), b);
   }
 
-  private static List<Version> parseAll(List<String> versionStrings) {
-    if (versionStrings == null || versionStrings.isEmpty()) {
-      return Collections.emptyList();
+  /**
+   * Compares the precedence of two versions by their packed form, ignoring build metadata like
+   * {@link Version#isHigherThan(Version)} and {@link Version#isLowerThan(Version)} do. Falls back
+   * to a full comparison for pre-releases of the same version and for versions that cannot be
+   * packed.
+   */
+  public static int comparePrecedence(Version a, Version b) {
+    long packedA = packVersion(a);
+    long packedB = packVersion(b);
+    if (packedA != UNPACKABLE && packedB != UNPACKABLE && packedA != packedB) {
+      return Long.compare(packedA, packedB);
     }
-    return versionStrings.stream()
-        .map(SemanticVersionUtil::parseVersion)
-        .filter(Optional::isPresent)
-        .map(Optional::get)
-        .collect(Collectors.toList());
+    return a.compareToIgnoreBuildMetadata(b);
   }
 
-  public static Optional<Version> getLatestOverallVersion(List<String> availableVersionStrings) {
-    if (availableVersionStrings == null || availableVersionStrings.isEmpty()) {
-      return Optional.empty();
+  /** Compares two versions whose packed form is already known. */
+  public static int compare(long packedA, Version a, long packedB, Version b) {
+    if (packedA != UNPACKABLE && packedB != UNPACKABLE && packedA != packedB) {
+      return Long.compare(packedA, packedB);
     }
-    return parseVersion(availableVersionStrings.get(0));
+    return a.compareTo(b);
   }
 
-  public static Optional<Version> getLatestGARelease(List<String> availableVersionStrings) {
-    List<Version> parsedVersions = parseAll(availableVersionStrings);
-    return parsedVersions.stream().filter(v -> !v.isPreRelease()).max(Version::compareTo);
+  /** The memoized results of {@link #parseVersion(String)}, exposed for metrics. */
+  public static Cache<String, Optional<Version>> parseCache() {
+    return PARSE_CACHE;
   }
 
-  public static Optional<Version> getLatestPreRelease(List<String> availableVersionStrings) {
-    List<Version> parsedVersions = parseAll(availableVersionStrings);
-    return parsedVersions.stream().filter(Version::isPreRelease).max(Version::compareTo);
+  private static Optional<Version> parseUncached(String versionStr) {
+    String processedString = versionStr.charAt(0) == 'v' ? versionStr.substring(1) : versionStr;
+    VersionTagScanner.Shape shape = VersionTagScanner.classify(processedString);
+    if (shape != VersionTagScanner.Shape.MAJOR_MINOR_PATCH) {
+      // The lenient parser fills in the missing minor and patch versions with zeros
+      logger.debug("Normalizing {} format: '{}'", shape, versionStr);
+    }
+
+    Optional<Version> parsedOpt = Version.tryParse(processedString, false);
+    if (parsedOpt.isEmpty()) {
+      logger.warn(
+          "Invalid semantic version format. Original: '{}', Cleaned: '{}'.",
+          versionStr,
+          processedString);
+    }
+    return parsedOpt;
   }
 
   public static boolean isOutdated(String currentVersionStr, String latestGAVersionStr) {
@@ -131,76 +130,22 @@ public class SemanticVersionUtil {
           latestGAVersionStr);
       return false;
     }
-    return latestGAOpt.get().greaterThan(currentOpt.get());
-  }
-
-  public static Optional<String> findNextMinorVersion(
-      String currentVersionStr, List<String> availableVersionStrings) {
-    Optional<Version> currentOpt = parseVersion(currentVersionStr);
-    if (currentOpt.isEmpty()) {
-      return Optional.empty();
-    }
-    Version current = currentOpt.get();
-    List<Version> availableParsed = parseAll(availableVersionStrings);
-
-    var versionsWithinSameMinor =
-        availableParsed.stream()
-            .filter(v -> !v.isPreRelease()) // Only consider GA releases
-            .filter(v -> v.majorVersion() == current.majorVersion()) // Same Major
-            .filter(v -> v.minorVersion() == current.minorVersion()) // Same Minor
-            .toList();
-
-    for (Version v : versionsWithinSameMinor) {
-      logger.info("Found minor version options: {}", v);
-    }
-
-    return versionsWithinSameMinor.stream()
-        .filter(
-            v ->
-                v.isHigherThanOrEquivalentTo(
-                    current)) // Newer than current (handles minor or patch increase)
-        .max(Version::compareTo)
-        .map(Version::toString);
-  }
-
-  public static Optional<String> findNextMajorVersion(
-      String currentVersionStr, List<String> availableVersionStrings) {
-    Optional<Version> currentOpt = parseVersion(currentVersionStr);
-    if (currentOpt.isEmpty()) {
-      return Optional.empty();
-    }
-    Version current = currentOpt.get();
-    List<Version> availableParsed = parseAll(availableVersionStrings);
-
-    // We want the highest Minor version within the same Major version
-    return availableParsed.stream()
-        .filter(v -> !v.isPreRelease()) // Only consider GA releases
-        .filter(v -> v.majorVersion() == current.majorVersion()) // Same Major
-        .filter(
-            v ->
-                v.isHigherThanOrEquivalentTo(
-                    current)) // Newer than current (handles minor or patch increase)
-        .max(Version::compareTo) // Get the latest within that next major series
-        .map(Version::toString);
+    return comparePrecedence(latestGAOpt.get(), currentOpt.get()) > 0;
   }
 
   /**
    * Calculates the difference in major versions between the current version and the latest GA
    * release.
    *
-   * @param currentVersionOpt Optional current version.
+   * @param current The current version.
    * @param nextMajorVersionOpt Optional latest GA release.
-   * @return The difference in major versions, or null if comparison isn't possible or not
+   * @return The difference in major versions, or empty if comparison isn't possible or not
    *     applicable.
    */
   public static Optional<Long> calculateMajorVersionDelta(
-      Optional<Version> currentVersionOpt, Optional<String> nextMajorVersionOpt) {
-    if (currentVersionOpt.isPresent() && nextMajorVersionOpt.isPresent()) {
-      Version current = currentVersionOpt.get();
-      Version latestGA = Version.tryParse(nextMajorVersionOpt.get(), false).orElse(null);
-      if (latestGA == null) {
-        return Optional.empty();
-      }
+      Version current, Optional<Version> nextMajorVersionOpt) {
+    if (current != null && nextMajorVersionOpt.isPresent()) {
+      Version latestGA = nextMajorVersionOpt.get();
 
       if (latestGA.majorVersion() == current.majorVersion()) {
         if (latestGA.minorVersion() > current.minorVersion()) {
@@ -216,46 +161,23 @@ public class SemanticVersionUtil {
     return Optional.empty(); // Not enough info to calculate
   }
 
-  /**
-   * Finds the latest GA release within the same major series as the current version.
-   *
-   * @param currentVersionOpt Optional current version.
-   * @param availableVersionStrings List of all available version strings.
-   * @return Optional latest GA version in the same major series.
-   */
-  public static Optional<Version> findLatestMinorInSameMajorSeries(
-      Optional<Version> currentVersionOpt, List<String> availableVersionStrings) {
-    if (currentVersionOpt.isEmpty()) {
-      return Optional.empty();
-    }
-    Version current = currentVersionOpt.get();
-    List<Version> availableParsed = parseAll(availableVersionStrings);
-
-    return availableParsed.stream()
-        .filter(v -> !v.isPreRelease()) // Only GA
-        .filter(v -> v.getMajorVersion() == current.getMajorVersion()) // Same Major
-        .max(Version::compareTo);
-  }
-
   /**
    * Calculates the difference in minor versions between the current version and the latest GA
    * release within the same major series.
    *
-   * @param currentVersionOpt Optional current version.
+   * @param current The current version.
    * @param latestMinorInSameMajorOpt Optional latest GA release in the same major series.
-   * @return The difference in minor versions, or null if comparison isn't possible or not
+   * @return The difference in minor versions, or empty if comparison isn't possible or not
    *     applicable.
    */
   public static Optional<Long> calculateMinorVersionDelta(
-      Optional<Version> currentVersionOpt, Optional<String> latestMinorInSameMajorOpt) {
-    if (currentVersionOpt.isPresent() && latestMinorInSameMajorOpt.isPresent()) {
-      Version current = currentVersionOpt.get();
-      Version latestMinorGA = Version.tryParse(latestMinorInSameMajorOpt.get(), false).orElse(null);
+      Version current, Optional<Version> latestMinorInSameMajorOpt) {
+    if (current != null && latestMinorInSameMajorOpt.isPresent()) {
+      Version latestMinorGA = latestMinorInSameMajorOpt.get();
 
       // Ensure they are indeed in the same major series for a meaningful minor delta
 
-      if (latestMinorGA != null
-          && current.majorVersion() == latestMinorGA.majorVersion()
+      if (current.majorVersion() == latestMinorGA.majorVersion()
           && latestMinorGA.minorVersion() == current.minorVersion()) {
         if (latestMinorGA.patchVersion() > current.patchVersion()) {
           return Optional.of(latestMinorGA.patchVersion() - current.patchVersion());
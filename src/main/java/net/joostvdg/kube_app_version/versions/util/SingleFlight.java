@@ -0,0 +1,59 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Coalesces concurrent calls for the same key into a single execution.
+ *
+ * <p>The first caller for a key runs the loader; callers arriving while it is still running wait
+ * for and share its result (or failure). Nothing is cached once the call completes.
+ *
+ * @param <K> the key type.
+ * @param <V> the result type.
+ */
+public class SingleFlight<K, V> {
+
+  private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * Runs the loader for the key, or joins the call already in flight for it.
+   *
+   * @param key the key identifying the call.
+   * @param loader the call to run if none is in flight.
+   * @return the result of the (shared) call.
+   * @throws Exception the failure of the (shared) call.
+   */
+  public V execute(K key, Callable<V> loader) throws Exception {
+    CompletableFuture<V> call = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+    if (existing != null) {
+      return await(existing);
+    }
+
+    try {
+      V result = loader.call();
+      call.complete(result);
+      return result;
+    } catch (Exception | Error e) {
+      call.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, call);
+    }
+  }
+
+  private V await(CompletableFuture<V> call) throws Exception {
+    try {
+      return call.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
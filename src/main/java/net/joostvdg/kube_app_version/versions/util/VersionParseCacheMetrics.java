@@ -0,0 +1,22 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the hits, misses, size and evictions of the {@link SemanticVersionUtil} parse cache as
+ * {@code cache.*} metrics tagged {@code cache=semver.parse}.
+ */
+@Component
+public class VersionParseCacheMetrics implements MeterBinder {
+
+  static final String CACHE_NAME = "semver.parse";
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, SemanticVersionUtil.parseCache(), CACHE_NAME);
+  }
+}
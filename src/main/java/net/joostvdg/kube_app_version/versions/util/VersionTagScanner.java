@@ -0,0 +1,107 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.util;
+
+/**
+ * Classifies tags by a single scan over their characters, without allocating, so that tags which
+ * cannot be a version ({@code latest}, {@code main-abc123}, {@code sha256-....sig}, commit hashes)
+ * are rejected before they reach the semantic version parser.
+ *
+ * <p>A candidate is an optional {@code v}, one to three dot separated numbers, and optionally a
+ * {@code -pre-release} and a {@code +build} part made of ASCII letters, digits, dots and hyphens.
+ * The scanner only decides on the shape; details such as leading zeros are left to the parser.
+ */
+public final class VersionTagScanner {
+
+  /** The shape of a tag, by the number of components of its version core. */
+  public enum Shape {
+    NOT_A_VERSION,
+    /** {@code X}, optionally with a pre-release or build, such as {@code 2} or {@code 2-rc.1}. */
+    MAJOR,
+    /** {@code X.Y}, optionally with a pre-release or build, such as {@code 1.2-alpha}. */
+    MAJOR_MINOR,
+    /** {@code X.Y.Z}, optionally with a pre-release or build, such as {@code 1.2.3-rc.1+abc}. */
+    MAJOR_MINOR_PATCH
+  }
+
+  private VersionTagScanner() {}
+
+  /** Whether the tag can be a version at all. */
+  public static boolean isCandidate(CharSequence tag) {
+    return classify(tag) != Shape.NOT_A_VERSION;
+  }
+
+  public static Shape classify(CharSequence tag) {
+    if (tag == null) {
+      return Shape.NOT_A_VERSION;
+    }
+    int length = tag.length();
+    int position = length > 0 && tag.charAt(0) == 'v' ? 1 : 0;
+
+    int components = 0;
+    while (true) {
+      int start = position;
+      while (position < length && isDigit(tag.charAt(position))) {
+        position++;
+      }
+      if (position == start) {
+        return Shape.NOT_A_VERSION;
+      }
+      components++;
+      if (position < length && tag.charAt(position) == '.' && components < 3) {
+        position++;
+        continue;
+      }
+      break;
+    }
+
+    if (position < length && tag.charAt(position) == '-') {
+      position = skipIdentifiers(tag, position + 1);
+      if (position < 0) {
+        return Shape.NOT_A_VERSION;
+      }
+    }
+    if (position < length && tag.charAt(position) == '+') {
+      position = skipIdentifiers(tag, position + 1);
+      if (position < 0) {
+        return Shape.NOT_A_VERSION;
+      }
+    }
+    if (position != length) {
+      return Shape.NOT_A_VERSION;
+    }
+    return switch (components) {
+      case 1 -> Shape.MAJOR;
+      case 2 -> Shape.MAJOR_MINOR;
+      default -> Shape.MAJOR_MINOR_PATCH;
+    };
+  }
+
+  /**
+   * Skips a non-empty run of identifier characters, stopping at a {@code +} or the end.
+   *
+   * @return the position after the run, or -1 if the run is empty or holds another character.
+   */
+  private static int skipIdentifiers(CharSequence tag, int position) {
+    int start = position;
+    int length = tag.length();
+    while (position < length) {
+      char c = tag.charAt(position);
+      if (c == '+') {
+        break;
+      }
+      if (!isDigit(c) && !isAsciiLetter(c) && c != '.' && c != '-') {
+        return -1;
+      }
+      position++;
+    }
+    return position > start ? position : -1;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isAsciiLetter(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+}
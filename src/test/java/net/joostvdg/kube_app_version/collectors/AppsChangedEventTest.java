@@ -0,0 +1,57 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.Set;
+import net.joostvdg.kube_app_version.api.model.App;
+import net.joostvdg.kube_app_version.api.model.AppArtifact;
+import net.joostvdg.kube_app_version.api.model.AppVersion;
+import org.junit.jupiter.api.Test;
+
+class AppsChangedEventTest {
+
+  @Test
+  void reportsAddedUpdatedAndRemovedAppsAndArtifacts() {
+    AppArtifact oldChart = new AppArtifact("https://charts.example.com", "helm", "demo");
+    AppArtifact newChart = new AppArtifact("https://charts.example.com", "helm", "demo");
+    AppArtifact image = new AppArtifact("nginx:1.25.3", "containerImage", "web");
+    AppArtifact goneImage = new AppArtifact("redis:7.2", "containerImage", "cache");
+
+    App unchanged = app("unchanged", image);
+    App updatedBefore = app("demo", oldChart, image);
+    App updatedAfter = app("demo", newChart);
+    App removed = app("cache", goneImage);
+    App added = app("web", image);
+
+    AppsChangedEvent changes =
+        AppsChangedEvent.between(
+            "test",
+            Map.of("1", unchanged, "2", updatedBefore, "3", removed),
+            Map.of("1", unchanged, "2", updatedAfter, "4", added));
+
+    assertEquals(Set.of(added), changes.added());
+    assertEquals(Set.of(updatedAfter), changes.updated());
+    assertEquals(Set.of(removed), changes.removed());
+    // The chart of the updated app is the same artifact, only its image went away
+    assertEquals(Set.of(image), changes.addedArtifacts());
+    assertEquals(Set.of(image, goneImage), changes.removedArtifacts());
+  }
+
+  @Test
+  void identicalStatesHaveNoChanges() {
+    App app = app("demo", new AppArtifact("nginx:1.25.3", "containerImage", "demo"));
+
+    assertTrue(AppsChangedEvent.between("test", Map.of("1", app), Map.of("1", app)).isEmpty());
+  }
+
+  private static App app(String name, AppArtifact... artifacts) {
+    AppVersion version = new AppVersion();
+    version.setArtifacts(Set.of(artifacts));
+    App app = new App();
+    app.setName(name);
+    app.setCurrentVersion(version);
+    return app;
+  }
+}
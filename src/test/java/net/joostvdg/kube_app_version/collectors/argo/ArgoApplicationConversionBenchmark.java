@@ -0,0 +1,63 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.collectors.argo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares sequential and parallel conversion of Argo Applications. Not part of the regular test
+ * run, run it with {@code mvn test -Dtest=ArgoApplicationConversionBenchmark} on a machine with
+ * more than one processor; with a single processor the conversion pool is not used and the
+ * benchmark is skipped.
+ */
+class ArgoApplicationConversionBenchmark {
+
+  private static final int APPLICATIONS = 20_000;
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int MEASURED_ROUNDS = 10;
+
+  @Test
+  void sequentialVersusParallelConversion() {
+    int processors = Runtime.getRuntime().availableProcessors();
+    assumeTrue(processors > 1, "parallel conversion needs more than one processor");
+    List<ArgoApplication> page = ArgoCollectorTest.applications(APPLICATIONS);
+    ArgoCollector sequential = ArgoCollectorTest.collector(1);
+    ArgoCollector parallel = ArgoCollectorTest.collector(0);
+    try {
+      long sequentialNanos = measure(sequential, page);
+      long parallelNanos = measure(parallel, page);
+      System.out.printf(
+          "Converted %d Applications: sequential %d ms, parallel %d ms on %d processors (%.1fx)%n",
+          APPLICATIONS,
+          TimeUnit.NANOSECONDS.toMillis(sequentialNanos),
+          TimeUnit.NANOSECONDS.toMillis(parallelNanos),
+          processors,
+          (double) sequentialNanos / parallelNanos);
+    } finally {
+      sequential.shutdown();
+      parallel.shutdown();
+    }
+  }
+
+  /** Returns the median duration of a conversion of the page, after warming up. */
+  private static long measure(ArgoCollector collector, List<ArgoApplication> page) {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      assertEquals(
+          page.size(), collector.processArgoApplications(ArgoCollectorTest.CLUSTER, page).size());
+    }
+    long[] durations = new long[MEASURED_ROUNDS];
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      long start = System.nanoTime();
+      assertEquals(
+          page.size(), collector.processArgoApplications(ArgoCollectorTest.CLUSTER, page).size());
+      durations[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(durations);
+    return durations[MEASURED_ROUNDS / 2];
+  }
+}
@@ -0,0 +1,145 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.collectors.argo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.JSON;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import net.joostvdg.kube_app_version.api.model.App;
+import net.joostvdg.kube_app_version.api.model.AppArtifact;
+import net.joostvdg.kube_app_version.config.KubernetesClusters;
+import org.junit.jupiter.api.Test;
+
+class ArgoCollectorTest {
+
+  static final String CLUSTER = "test";
+
+  @Test
+  void parallelConversionKeepsPageOrderAndMatchesSequentialConversion() {
+    List<ArgoApplication> page = applications(500);
+    ArgoCollector sequential = collector(1);
+    ArgoCollector parallel = collector(4);
+    try {
+      List<App> expected = sequential.processArgoApplications(CLUSTER, page);
+      List<App> actual = parallel.processArgoApplications(CLUSTER, page);
+
+      assertEquals(page.size(), actual.size());
+      for (int i = 0; i < page.size(); i++) {
+        assertEquals(page.get(i).getMetadata().getUid(), actual.get(i).getId());
+        assertEquals(CLUSTER, actual.get(i).getCluster());
+        assertEquals(expected.get(i).getName(), actual.get(i).getName());
+        assertEquals(
+            expected.get(i).getCurrentVersion().getVersion(),
+            actual.get(i).getCurrentVersion().getVersion());
+        assertEquals(
+            sources(expected.get(i).getCurrentVersion().getArtifacts()),
+            sources(actual.get(i).getCurrentVersion().getArtifacts()));
+      }
+    } finally {
+      sequential.shutdown();
+      parallel.shutdown();
+    }
+  }
+
+  @Test
+  void extractsHelmChartAndImagesOfAnApplication() {
+    ArgoCollector collector = collector(1);
+
+    App app = collector.processArgoApplication(application(7));
+
+    assertEquals("app-7", app.getName());
+    assertEquals("1.7.0", app.getCurrentVersion().getVersion());
+    assertEquals("chart-7", app.getArtifactNameMappings().get("helm"));
+    assertEquals(
+        List.of("https://charts.example.com", "nginx:1.25.7", "redis:7.2.7"),
+        sources(app.getCurrentVersion().getArtifacts()));
+  }
+
+  @Test
+  void readsMultipleSourcesAndSkipsUnusedFields() {
+    ArgoApplication argoAppCr =
+        JSON.deserialize(
+            """
+            {
+              "metadata": {"name": "multi", "uid": "uid-m", "resourceVersion": "3"},
+              "spec": {
+                "sources": [
+                  {"repoURL": "https://github.com/org/config", "path": "apps/multi",
+                   "targetRevision": "v2.1.0", "directory": {"recurse": true}},
+                  {"repoURL": "ghcr.io/org/charts", "chart": "multi", "targetRevision": "0.4.0",
+                   "helm": {"valueFiles": ["values.yaml"]}}
+                ]
+              },
+              "status": {"history": [{"id": 1, "revision": "v2.0.0"}]}
+            }
+            """,
+            ArgoApplication.class);
+
+    App app = collector(1).processArgoApplication(argoAppCr);
+
+    assertEquals("uid-m", argoAppCr.getMetadata().getUid());
+    assertEquals("3", argoAppCr.getMetadata().getResourceVersion());
+    assertEquals("v2.1.0", app.getCurrentVersion().getVersion());
+    assertEquals(
+        List.of("https://github.com/org/config", "oci://ghcr.io/org/charts"),
+        sources(app.getCurrentVersion().getArtifacts()));
+    assertTrue(
+        app.getCurrentVersion().getArtifacts().stream()
+            .anyMatch(artifact -> "directory".equals(artifact.getArtifactType())));
+  }
+
+  static ArgoCollector collector(int conversionParallelism) {
+    ArgoCollectorConfig config = new ArgoCollectorConfig();
+    config.setConversionParallelism(conversionParallelism);
+    KubernetesClusters clusters =
+        new KubernetesClusters(
+            List.of(new KubernetesClusters.Cluster(CLUSTER, new ApiClient(), null)));
+    return new ArgoCollector(clusters, config, event -> {});
+  }
+
+  static List<ArgoApplication> applications(int count) {
+    return IntStream.range(0, count).mapToObj(ArgoCollectorTest::application).toList();
+  }
+
+  static ArgoApplication application(int i) {
+    String json =
+        """
+        {
+          "apiVersion": "argoproj.io/v1alpha1",
+          "kind": "Application",
+          "metadata": {
+            "name": "app-%1$d",
+            "namespace": "argocd",
+            "uid": "uid-%1$d",
+            "resourceVersion": "%1$d",
+            "labels": {"team": "team-%2$d"},
+            "creationTimestamp": "2025-01-01T10:00:00Z",
+            "managedFields": [{"manager": "argocd-server", "fieldsV1": {"f:spec": {}}}]
+          },
+          "spec": {
+            "source": {
+              "repoURL": "https://charts.example.com",
+              "chart": "chart-%1$d",
+              "targetRevision": "1.%1$d.0"
+            }
+          },
+          "status": {
+            "sync": {"status": "Synced", "comparedTo": {"source": {"repoURL": "x"}}},
+            "resources": [{"kind": "Deployment", "name": "app-%1$d", "status": "Synced"}],
+            "summary": {"images": ["nginx:1.25.%1$d", "redis:7.2.%1$d"]}
+          }
+        }
+        """
+            .formatted(i, i % 10);
+    return JSON.deserialize(json, ArgoApplication.class);
+  }
+
+  private static List<String> sources(Iterable<AppArtifact> artifacts) {
+    List<String> sources = new ArrayList<>();
+    artifacts.forEach(artifact -> sources.add(artifact.getSource()));
+    return sources.stream().sorted().toList();
+  }
+}
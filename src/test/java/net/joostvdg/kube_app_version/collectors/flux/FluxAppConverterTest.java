@@ -0,0 +1,128 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.collectors.flux;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.kubernetes.client.openapi.JSON;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import net.joostvdg.kube_app_version.api.model.App;
+import net.joostvdg.kube_app_version.api.model.AppArtifact;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.Yaml;
+
+/** Converts the recorded Flux objects in {@code examples/flux}. */
+class FluxAppConverterTest {
+
+  private static final Path FIXTURES = Path.of("examples", "flux");
+  private static final Map<String, HelmRelease> releases = new HashMap<>();
+  private static final Map<String, FluxSource> sources = new HashMap<>();
+
+  private final FluxAppConverter converter = new FluxAppConverter();
+
+  @BeforeAll
+  static void loadFixtures() throws IOException {
+    try (Stream<Path> files = Files.list(FIXTURES)) {
+      for (Path file : files.filter(path -> path.toString().endsWith(".yaml")).toList()) {
+        try (Reader reader = Files.newBufferedReader(file)) {
+          for (Object document : new Yaml().loadAll(reader)) {
+            load((Map<?, ?>) document);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void helmReleaseFromOciRepositoryChartRef() {
+    App app = convert("podinfo");
+
+    assertEquals("podinfo", app.getName());
+    assertEquals("7d0b3c2a-8e4f-4a6b-b1c9-5e2d8f0a7c33", app.getId());
+    assertEquals("test", app.getCluster());
+    assertEquals("6.7.1", app.getCurrentVersion().getVersion());
+    assertEquals(
+        Set.of("helm|oci://ghcr.io/stefanprodan/charts|podinfo"),
+        artifacts(app.getCurrentVersion().getArtifacts()));
+  }
+
+  @Test
+  void helmReleasesFromHelmRepositories() {
+    App redis = convert("redis");
+    assertEquals("19.6.4", redis.getCurrentVersion().getVersion());
+    assertEquals(
+        Set.of("helm|https://charts.bitnami.com/bitnami|redis"),
+        artifacts(redis.getCurrentVersion().getArtifacts()));
+
+    // Not reconciled yet, the version of the chart template is all there is
+    App certManager = convert("cert-manager");
+    assertEquals("v1.15.3", certManager.getCurrentVersion().getVersion());
+    assertEquals(
+        Set.of("helm|oci://quay.io/jetstack/charts|cert-manager"),
+        artifacts(certManager.getCurrentVersion().getArtifacts()));
+  }
+
+  @Test
+  void helmReleaseFromGitRepository() {
+    App app = convert("internal-app");
+
+    assertEquals("0.3.2", app.getCurrentVersion().getVersion());
+    AppArtifact artifact = app.getCurrentVersion().getArtifacts().iterator().next();
+    assertEquals("git", artifact.getArtifactType());
+    assertEquals("https://github.com/example-org/platform", artifact.getSource());
+    assertEquals("./charts/internal-app", artifact.getMetaData().get("path"));
+  }
+
+  @Test
+  void unknownSourceLeavesTheAppWithoutArtifacts() {
+    HelmRelease release = releases.get("redis");
+
+    assertNull(converter.sourceOf(release, (kind, namespace, name) -> null));
+    assertTrue(converter.toApp(release, null, "test").getCurrentVersion().getArtifacts().isEmpty());
+  }
+
+  private App convert(String releaseName) {
+    HelmRelease release = releases.get(releaseName);
+    FluxSource source =
+        converter.sourceOf(
+            release, (kind, namespace, name) -> sources.get(kind + "/" + namespace + "/" + name));
+    assertNotNull(source, "source of " + releaseName);
+    return converter.toApp(release, source, "test");
+  }
+
+  private static Set<String> artifacts(Set<AppArtifact> artifacts) {
+    return artifacts.stream()
+        .map(a -> a.getArtifactType() + "|" + a.getSource() + "|" + a.getArtifactName())
+        .collect(Collectors.toSet());
+  }
+
+  private static void load(Map<?, ?> document) {
+    String kind = (String) document.get("kind");
+    String json = JSON.getGson().toJson(document);
+    Class<? extends FluxObject> type =
+        switch (kind) {
+          case "HelmRelease" -> HelmRelease.class;
+          case "HelmRepository" -> FluxSource.HelmRepository.class;
+          case "OCIRepository" -> FluxSource.OCIRepository.class;
+          case "GitRepository" -> FluxSource.GitRepository.class;
+          default -> throw new IllegalArgumentException("Unexpected kind " + kind);
+        };
+    FluxObject fluxObject = JSON.deserialize(json, type);
+    String name = fluxObject.getMetadata().getName();
+    if (fluxObject instanceof HelmRelease release) {
+      releases.put(name, release);
+    } else {
+      sources.put(
+          kind + "/" + fluxObject.getMetadata().getNamespace() + "/" + name,
+          (FluxSource) fluxObject);
+    }
+  }
+}
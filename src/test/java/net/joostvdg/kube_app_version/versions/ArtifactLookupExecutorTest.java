@@ -0,0 +1,136 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.joostvdg.kube_app_version.api.model.AppArtifact;
+import net.joostvdg.kube_app_version.config.OutdatedArtifactsProperties;
+import org.junit.jupiter.api.Test;
+
+class ArtifactLookupExecutorTest {
+
+  @Test
+  void busyRegistryDoesNotStarveOtherRegistries() throws Exception {
+    OutdatedArtifactsProperties properties = new OutdatedArtifactsProperties();
+    properties.setMaxConcurrentLookups(2);
+    properties.setMaxConcurrentLookupsPerRegistry(1);
+    ArtifactLookupExecutor executor =
+        new ArtifactLookupExecutor(properties, new SimpleMeterRegistry());
+    CountDownLatch blocked = new CountDownLatch(1);
+    try {
+      List<CompletableFuture<String>> dockerHubLookups = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        dockerHubLookups.add(
+            executor.submit(
+                new AppArtifact("nginx:1.25." + i, "containerImage", "web"),
+                () -> {
+                  await(blocked);
+                  return "docker";
+                }));
+      }
+
+      CompletableFuture<String> otherLookup =
+          executor.submit(
+              new AppArtifact("ghcr.io/org/app:1.0.0", "containerImage", "app"), () -> "ghcr");
+
+      // The queued Docker Hub lookups wait for their registry, not on a global permit
+      assertEquals("ghcr", otherLookup.get(5, TimeUnit.SECONDS));
+      blocked.countDown();
+      for (CompletableFuture<String> lookup : dockerHubLookups) {
+        assertEquals("docker", lookup.get(5, TimeUnit.SECONDS));
+      }
+    } finally {
+      blocked.countDown();
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void runsAtMostTheAllowedNumberOfLookups() throws Exception {
+    OutdatedArtifactsProperties properties = new OutdatedArtifactsProperties();
+    properties.setMaxConcurrentLookups(2);
+    properties.setMaxConcurrentLookupsPerRegistry(2);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    ArtifactLookupExecutor executor = new ArtifactLookupExecutor(properties, meterRegistry);
+    CountDownLatch blocked = new CountDownLatch(1);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    try {
+      List<CompletableFuture<String>> lookups = new ArrayList<>();
+      for (String registry : List.of("ghcr.io", "quay.io", "registry.example.com")) {
+        for (int i = 0; i < 2; i++) {
+          lookups.add(
+              executor.submit(
+                  new AppArtifact(registry + "/org/app:1.0." + i, "containerImage", "app"),
+                  () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    await(blocked);
+                    running.decrementAndGet();
+                    return registry;
+                  }));
+        }
+      }
+
+      awaitGauge(meterRegistry, "kav.lookup.executor.active", 2);
+      awaitGauge(meterRegistry, "kav.lookup.executor.queued", 4);
+      blocked.countDown();
+      for (CompletableFuture<String> lookup : lookups) {
+        lookup.get(5, TimeUnit.SECONDS);
+      }
+
+      assertEquals(2, maxRunning.get());
+      assertEquals(0, meterRegistry.get("kav.lookup.executor.active").gauge().value());
+      assertEquals(0, meterRegistry.get("kav.lookup.executor.queued").gauge().value());
+    } finally {
+      blocked.countDown();
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void registryAliasesShareTheQueriedHost() {
+    for (String source :
+        List.of(
+            "nginx:1.25.3",
+            "docker.io/library/nginx:1.25.3",
+            "index.docker.io/library/nginx:1.25.3",
+            "oci://docker.io/bitnamicharts/redis")) {
+      assertEquals(
+          "registry-1.docker.io",
+          ArtifactLookupExecutor.registryOf(new AppArtifact(source, "containerImage", "web")),
+          source);
+    }
+    assertEquals(
+        "ghcr.io",
+        ArtifactLookupExecutor.registryOf(
+            new AppArtifact("ghcr.io/org/app:1.0.0", "containerImage", "app")));
+    assertEquals(
+        "charts.example.com",
+        ArtifactLookupExecutor.registryOf(
+            new AppArtifact("https://Charts.Example.com/stable", "helm", "demo")));
+  }
+
+  private static void awaitGauge(SimpleMeterRegistry meterRegistry, String name, double expected)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (meterRegistry.get(name).gauge().value() != expected) {
+      assertTrue(System.nanoTime() < deadline, name + " did not reach " + expected);
+      Thread.sleep(5);
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
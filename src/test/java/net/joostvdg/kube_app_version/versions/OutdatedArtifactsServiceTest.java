@@ -0,0 +1,545 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.joostvdg.kube_app_version.api.model.App;
+import net.joostvdg.kube_app_version.api.model.AppArtifact;
+import net.joostvdg.kube_app_version.api.model.AppVersion;
+import net.joostvdg.kube_app_version.collectors.ApplicationCollector;
+import net.joostvdg.kube_app_version.collectors.AppsChangedEvent;
+import net.joostvdg.kube_app_version.collectors.CollectorService;
+import net.joostvdg.kube_app_version.config.OutdatedArtifactsProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+class OutdatedArtifactsServiceTest {
+
+  private static final String CHARTS = "https://charts.example.com";
+
+  private final StubFetcher fetcher = new StubFetcher();
+  private final InMemoryResultRepository results = new InMemoryResultRepository();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private volatile Set<App> collectedApps = Set.of();
+  private ArtifactLookupExecutor lookupExecutor;
+  private OutdatedArtifactsService service;
+
+  @BeforeEach
+  void setUp() {
+    OutdatedArtifactsProperties properties = new OutdatedArtifactsProperties();
+    lookupExecutor = new ArtifactLookupExecutor(properties, meterRegistry);
+    service =
+        new OutdatedArtifactsService(
+            new CollectorService(List.of(() -> collectedApps)),
+            List.of(fetcher),
+            new NoOpAppArtifactRepository(),
+            results,
+            properties,
+            lookupExecutor);
+  }
+
+  @AfterEach
+  void tearDown() {
+    fetcher.release.countDown();
+    service.shutdown();
+    lookupExecutor.shutdown();
+  }
+
+  @Test
+  void fullRefreshLooksUpAnArtifactUsedByManyAppsOnce() {
+    fetcher.versions = VersionSet.parse(List.of("1.24.0", "1.25.3", "1.26.0"));
+    App web = app("web", "1.0.0", image("nginx:1.25.3"));
+    App proxy = app("proxy", "1.0.0", image("nginx:1.24.0"));
+    App docs = app("docs", "1.0.0", image("docker.io/library/nginx:1.25.3"));
+    collectedApps = Set.of(web, proxy, docs);
+    OutdatedArtifactInfo stale = result(app("gone", "1.0.0"), image("redis:7.2.0"));
+    results.save(stale);
+
+    service.refreshOutdatedArtifacts();
+
+    assertEquals(1, fetcher.calls.get());
+    assertEquals(List.of("1.24.0"), fetcher.floors);
+    assertEquals("1.26.0", results.get(web, "nginx:1.25.3").getLatestGARelease());
+    assertEquals("1.26.0", results.get(proxy, "nginx:1.24.0").getLatestGARelease());
+    assertNotNull(results.get(docs, "docker.io/library/nginx:1.25.3"));
+    assertFalse(results.existsById(stale.getId()), "results of apps that are gone are dropped");
+  }
+
+  @Test
+  void uncachedResultsAreEvaluatedWithOneLookupPerUniqueArtifact() {
+    fetcher.versions = VersionSet.parse(List.of("1.0.0", "1.24.0", "1.25.3", "1.26.0"));
+    results.discardSaves = true;
+    App web = app("web", "1.0.0", image("nginx:1.25.3"), chart());
+    App proxy = app("proxy", "1.0.0", image("nginx:1.24.0"), chart());
+    App untagged = app("untagged", "1.0.0", image("quay.io/org/tools"));
+    collectedApps = Set.of(web, proxy, untagged);
+
+    List<OutdatedArtifactInfo> outdated = service.getOutdatedArtifacts();
+
+    // The refresh stores nothing, so the results are evaluated again: once more per artifact
+    assertEquals(4, fetcher.calls.get(), "images without a version are not looked up");
+    assertEquals(4, outdated.size());
+    assertTrue(
+        outdated.stream().allMatch(info -> "1.26.0".equals(info.getLatestGARelease())),
+        "every app is evaluated against the versions of its artifact");
+  }
+
+  @Test
+  void imagesAreComparedWithTagsOfTheirOwnVariant() {
+    fetcher.versions =
+        VersionSet.parse(
+            List.of("1.25-alpine", "1.25", "1.26-alpine", "1.26", "1.27", "1.27.0-rc.1"));
+    App alpine = app("alpine", "1.0.0", image("nginx:1.25-alpine"));
+    App plain = app("plain", "1.0.0", image("nginx:1.25"));
+    App latestAlpine = app("latest-alpine", "1.0.0", image("nginx:1.26-alpine"));
+    collectedApps = Set.of(alpine, plain, latestAlpine);
+
+    service.refreshOutdatedArtifacts();
+
+    OutdatedArtifactInfo alpineResult = results.get(alpine, "nginx:1.25-alpine");
+    assertEquals("1.26-alpine", alpineResult.getLatestGARelease());
+    assertEquals("1.26-alpine", alpineResult.getNextMajorVersion());
+    assertEquals(
+        List.of("1.26-alpine", "1.25-alpine"), alpineResult.getAvailableArtifactVersions());
+    OutdatedArtifactInfo plainResult = results.get(plain, "nginx:1.25");
+    assertEquals("1.27", plainResult.getLatestGARelease());
+    assertEquals(List.of("1.27", "1.26", "1.25"), plainResult.getAvailableArtifactVersions());
+    assertNull(plainResult.getLatestPreRelease());
+    assertNull(results.get(latestAlpine, "nginx:1.26-alpine"), "1.27 is not an alpine tag");
+  }
+
+  @Test
+  void changedUpstreamOnlyReevaluatesArtifactsWhoseVersionsChanged() {
+    fetcher.versions = VersionSet.parse(List.of("1.0.0", "1.1.0"));
+    App demo = app("demo", "1.0.0", chart());
+    collectedApps = Set.of(demo);
+
+    service.refreshOutdatedArtifacts();
+    assertEquals(1, results.saves.get());
+
+    service.refreshOutdatedArtifacts();
+    assertEquals(2, fetcher.calls.get());
+    assertEquals(1, results.saves.get(), "unchanged versions are not re-evaluated");
+
+    fetcher.versions = VersionSet.parse(List.of("1.0.0", "1.1.0", "1.2.0"));
+    service.refreshOutdatedArtifacts();
+    assertEquals(3, fetcher.calls.get());
+    assertEquals(2, results.saves.get());
+    assertEquals("1.2.0", results.get(demo, CHARTS).getLatestGARelease());
+  }
+
+  @Test
+  void changedAppsAreEvaluatedAgainstKnownVersions() {
+    fetcher.versions = VersionSet.parse(List.of("0.9.0", "1.0.0", "1.0.5", "1.1.0"));
+    App demo = app("demo", "1.0.0", chart());
+    collectedApps = Set.of(demo);
+    service.refreshOutdatedArtifacts();
+    assertEquals(
+        List.of("1.1.0", "1.0.5", "1.0.0", "0.9.0"),
+        results.get(demo, CHARTS).getAvailableArtifactVersions(),
+        "versions older than the deployed one are reported as well");
+
+    App upgraded = app("demo", "1.0.5", chart());
+    collectedApps = Set.of(upgraded);
+    service.handleAppsChanged(changes(Set.of(), Set.of(upgraded), Set.of()));
+
+    assertEquals(1, fetcher.calls.get(), "a newer floor is covered by the known versions");
+    assertEquals("1.0.5", results.get(upgraded, CHARTS).getCurrentArtifactVersion());
+    assertEquals(4, results.get(upgraded, CHARTS).getAvailableArtifactVersions().size());
+
+    App older = app("older", "0.9.0", chart());
+    collectedApps = Set.of(upgraded, older);
+    service.handleAppsChanged(changes(Set.of(older), Set.of(), Set.of()));
+
+    assertEquals(List.of("1.0.0", "0.9.0"), fetcher.floors, "an older floor is fetched");
+    assertEquals("1.1.0", results.get(older, CHARTS).getLatestGARelease());
+  }
+
+  @Test
+  void removedAndUpToDateAppsLoseTheirResults() {
+    fetcher.versions = VersionSet.parse(List.of("1.0.0", "1.1.0"));
+    App first = app("first", "1.0.0", chart());
+    App second = app("second", "1.0.0", chart());
+    collectedApps = Set.of(first, second);
+    service.refreshOutdatedArtifacts();
+    assertEquals(2, results.count());
+
+    App upToDate = app("first", "1.1.0", chart());
+    collectedApps = Set.of(upToDate, second);
+    service.handleAppsChanged(changes(Set.of(), Set.of(upToDate), Set.of()));
+    assertNull(results.get(first, CHARTS));
+    assertNotNull(results.get(second, CHARTS));
+
+    collectedApps = Set.of(upToDate);
+    service.handleAppsChanged(changes(Set.of(), Set.of(), Set.of(second)));
+    assertEquals(0, results.count());
+
+    // The chart is still in use, so its versions are still known
+    App third = app("third", "1.0.0", chart());
+    collectedApps = Set.of(upToDate, third);
+    service.handleAppsChanged(changes(Set.of(third), Set.of(), Set.of()));
+    assertEquals(1, fetcher.calls.get());
+
+    // Once no app uses the chart anymore, its versions are forgotten
+    collectedApps = Set.of();
+    service.handleAppsChanged(changes(Set.of(), Set.of(), Set.of(upToDate, third)));
+    App fourth = app("fourth", "1.0.0", chart());
+    collectedApps = Set.of(fourth);
+    service.handleAppsChanged(changes(Set.of(fourth), Set.of(), Set.of()));
+    assertEquals(2, fetcher.calls.get());
+    assertNotNull(results.get(fourth, CHARTS));
+  }
+
+  @Test
+  void changedAppsKeepTheResultsOfArtifactsWhoseLookupFailed() {
+    fetcher.versions = VersionSet.parse(List.of("0.9.0", "1.0.0", "1.1.0"));
+    App demo = app("demo", "1.0.0", chart(), image("nginx:1.0.0"));
+    collectedApps = Set.of(demo);
+    service.refreshOutdatedArtifacts();
+    assertEquals(2, results.count());
+
+    // The older floor needs a fetch, which fails
+    fetcher.failure = new IllegalStateException("rate limit exhausted");
+    App downgraded = app("demo", "0.9.0", chart());
+    collectedApps = Set.of(downgraded);
+    service.handleAppsChanged(changes(Set.of(), Set.of(downgraded), Set.of()));
+
+    assertEquals(3, fetcher.calls.get());
+    assertEquals(
+        "1.0.0",
+        results.get(downgraded, CHARTS).getCurrentArtifactVersion(),
+        "the previous result is kept until the chart is evaluated again");
+    assertEquals(1, results.count(), "the image is no longer deployed");
+  }
+
+  @Test
+  void concurrentLookupsOfAnArtifactShareOneFetch() throws Exception {
+    fetcher.versions = VersionSet.parse(List.of("1.0.0", "1.1.0"));
+    fetcher.release = new CountDownLatch(1);
+    App first = app("first", "1.0.0", chart());
+    collectedApps = Set.of(first);
+
+    CompletableFuture<Void> refresh = CompletableFuture.runAsync(service::refreshOutdatedArtifacts);
+    awaitActiveLookups(1);
+    App second = app("second", "1.0.0", chart());
+    collectedApps = Set.of(first, second);
+    CompletableFuture<Void> change =
+        CompletableFuture.runAsync(
+            () -> service.handleAppsChanged(changes(Set.of(second), Set.of(), Set.of())));
+    awaitActiveLookups(2);
+    // Give the second lookup the moment it needs to join the fetch in flight
+    Thread.sleep(100);
+    fetcher.release.countDown();
+
+    refresh.get(5, TimeUnit.SECONDS);
+    change.get(5, TimeUnit.SECONDS);
+    assertEquals(1, fetcher.calls.get());
+    assertNotNull(results.get(first, CHARTS));
+    assertNotNull(results.get(second, CHARTS));
+  }
+
+  @Test
+  void appsRemovedDuringRefreshKeepNoResults() throws Exception {
+    fetcher.versions = VersionSet.parse(List.of("1.0.0", "1.1.0"));
+    fetcher.release = new CountDownLatch(1);
+    App removed = app("removed", "1.0.0", chart());
+    collectedApps = Set.of(removed);
+
+    CompletableFuture<Void> refresh = CompletableFuture.runAsync(service::refreshOutdatedArtifacts);
+    awaitActiveLookups(1);
+    collectedApps = Set.of();
+    service.handleAppsChanged(changes(Set.of(), Set.of(), Set.of(removed)));
+    fetcher.release.countDown();
+
+    refresh.get(5, TimeUnit.SECONDS);
+    assertEquals(0, results.count());
+  }
+
+  @Test
+  void appsSyncedWhileTheContextStartsAreEvaluatedOnceItIsReady() {
+    fetcher.versions = VersionSet.parse(List.of("1.0.0", "1.1.0"));
+    App demo = app("demo", "1.0.0", chart());
+
+    try (ConfigurableApplicationContext context =
+        new SpringApplicationBuilder(StartupConfig.class)
+            .web(WebApplicationType.NONE)
+            .initializers(
+                initialized -> {
+                  ConfigurableListableBeanFactory beanFactory = initialized.getBeanFactory();
+                  beanFactory.registerSingleton("fetcher", fetcher);
+                  beanFactory.registerSingleton("results", results);
+                  beanFactory.registerSingleton(
+                      "collector", new SyncingCollector(initialized, Set.of(demo)));
+                })
+            .run()) {
+      assertTrue(context.getBean(SyncingCollector.class).synced);
+      assertEquals("1.1.0", results.get(demo, CHARTS).getLatestGARelease());
+    }
+  }
+
+  private void awaitActiveLookups(int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (meterRegistry.get("kav.lookup.executor.active").gauge().value() < expected) {
+      assertTrue(System.nanoTime() < deadline, "lookups did not start");
+      Thread.sleep(5);
+    }
+  }
+
+  private static AppsChangedEvent changes(Set<App> added, Set<App> updated, Set<App> removed) {
+    return new AppsChangedEvent("test", added, updated, removed, Set.of(), Set.of());
+  }
+
+  private static AppArtifact chart() {
+    return new AppArtifact(CHARTS, "helm", "demo");
+  }
+
+  private static AppArtifact image(String source) {
+    return new AppArtifact(source, "containerImage", "web");
+  }
+
+  private static App app(String id, String version, AppArtifact... artifacts) {
+    AppVersion appVersion = new AppVersion();
+    appVersion.setVersion(version);
+    appVersion.setArtifacts(Set.of(artifacts));
+    App app = new App();
+    app.setId(id);
+    app.setName(id);
+    app.setCurrentVersion(appVersion);
+    app.setVersions(Set.of(appVersion));
+    return app;
+  }
+
+  private static OutdatedArtifactInfo result(App app, AppArtifact artifact) {
+    return new OutdatedArtifactInfo(
+        app.getName(),
+        app.getId(),
+        app.getCurrentVersion().getVersion(),
+        artifact.getSource(),
+        artifact.getArtifactType(),
+        "7.2.0",
+        "7.4.0",
+        "7.4.0",
+        null,
+        null,
+        "7.4.0",
+        2L,
+        null,
+        List.of("7.4.0", "7.2.0"));
+  }
+
+  @Configuration(proxyBeanMethods = false)
+  static class StartupConfig {
+    @Bean
+    CollectorService collectorService(List<ApplicationCollector> collectors) {
+      return new CollectorService(collectors);
+    }
+
+    @Bean
+    OutdatedArtifactsProperties outdatedArtifactsProperties() {
+      return new OutdatedArtifactsProperties();
+    }
+
+    @Bean
+    ArtifactLookupExecutor artifactLookupExecutor(OutdatedArtifactsProperties properties) {
+      return new ArtifactLookupExecutor(properties, new SimpleMeterRegistry());
+    }
+
+    @Bean
+    OutdatedArtifactsService outdatedArtifactsService(
+        CollectorService collectorService,
+        List<VersionFetcher> fetchers,
+        OutdatedArtifactInfoRepository results,
+        OutdatedArtifactsProperties properties,
+        ArtifactLookupExecutor lookupExecutor) {
+      return new OutdatedArtifactsService(
+          collectorService,
+          fetchers,
+          new NoOpAppArtifactRepository(),
+          results,
+          properties,
+          lookupExecutor);
+    }
+
+    /**
+     * Completes the initial sync of the collector once the service is created, while the context is
+     * still starting, like an informer whose initial list arrives late.
+     */
+    @Bean
+    static BeanPostProcessor syncCollectorDuringStartup(
+        ObjectProvider<SyncingCollector> collector) {
+      return new BeanPostProcessor() {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+          if (bean instanceof OutdatedArtifactsService) {
+            collector.getObject().sync();
+          }
+          return bean;
+        }
+      };
+    }
+  }
+
+  /** Collects the given apps on its initial sync and publishes them, as the collectors do. */
+  private static final class SyncingCollector implements ApplicationCollector {
+    private final ApplicationEventPublisher eventPublisher;
+    private final Set<App> syncedApps;
+    private volatile Set<App> apps = Set.of();
+    private volatile boolean synced;
+
+    SyncingCollector(ApplicationEventPublisher eventPublisher, Set<App> syncedApps) {
+      this.eventPublisher = eventPublisher;
+      this.syncedApps = syncedApps;
+    }
+
+    void sync() {
+      apps = syncedApps;
+      synced = true;
+      eventPublisher.publishEvent(
+          new AppsChangedEvent("syncing", syncedApps, Set.of(), Set.of(), Set.of(), Set.of()));
+    }
+
+    @Override
+    public Set<App> getCollectedApplications() {
+      return apps;
+    }
+  }
+
+  /** Serves fixed versions for every artifact, or fails if a failure is set, and counts fetches. */
+  private static final class StubFetcher implements VersionFetcher {
+    private final AtomicInteger calls = new AtomicInteger();
+    private final List<String> floors = new CopyOnWriteArrayList<>();
+    private volatile VersionSet versions = VersionSet.empty();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private volatile Exception failure;
+
+    @Override
+    public VersionSet getAvailableVersions(AppArtifact artifact) throws Exception {
+      return getAvailableVersions(artifact, null);
+    }
+
+    @Override
+    public VersionSet getAvailableVersions(AppArtifact artifact, String floorVersion)
+        throws Exception {
+      calls.incrementAndGet();
+      floors.add(floorVersion);
+      assertTrue(release.await(5, TimeUnit.SECONDS));
+      if (failure != null) {
+        throw failure;
+      }
+      return versions;
+    }
+
+    @Override
+    public boolean supports(AppArtifact artifact) {
+      return true;
+    }
+  }
+
+  private static final class InMemoryResultRepository implements OutdatedArtifactInfoRepository {
+    private final Map<String, OutdatedArtifactInfo> stored = new ConcurrentHashMap<>();
+    private final AtomicInteger saves = new AtomicInteger();
+    private volatile boolean discardSaves;
+
+    OutdatedArtifactInfo get(App app, String source) {
+      AppArtifact artifact =
+          app.getCurrentVersion().getArtifacts().stream()
+              .filter(a -> a.getSource().equals(source))
+              .findFirst()
+              .orElseThrow();
+      return stored.get(
+          OutdatedArtifactInfo.idFor(app.getId(), source, artifact.getArtifactType()));
+    }
+
+    @Override
+    public <S extends OutdatedArtifactInfo> S save(S entity) {
+      saves.incrementAndGet();
+      if (!discardSaves) {
+        stored.put(entity.getId(), entity);
+      }
+      return entity;
+    }
+
+    @Override
+    public <S extends OutdatedArtifactInfo> Iterable<S> saveAll(Iterable<S> entities) {
+      saves.incrementAndGet();
+      if (!discardSaves) {
+        entities.forEach(entity -> stored.put(entity.getId(), entity));
+      }
+      return entities;
+    }
+
+    @Override
+    public Optional<OutdatedArtifactInfo> findById(String id) {
+      return Optional.ofNullable(stored.get(id));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+      return stored.containsKey(id);
+    }
+
+    @Override
+    public Iterable<OutdatedArtifactInfo> findAll() {
+      return new ArrayList<>(stored.values());
+    }
+
+    @Override
+    public Iterable<OutdatedArtifactInfo> findAllById(Iterable<String> ids) {
+      List<OutdatedArtifactInfo> found = new ArrayList<>();
+      ids.forEach(id -> findById(id).ifPresent(found::add));
+      return found;
+    }
+
+    @Override
+    public long count() {
+      return stored.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+      stored.remove(id);
+    }
+
+    @Override
+    public void delete(OutdatedArtifactInfo entity) {
+      stored.remove(entity.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+      ids.forEach(stored::remove);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends OutdatedArtifactInfo> entities) {
+      entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+      stored.clear();
+    }
+  }
+}
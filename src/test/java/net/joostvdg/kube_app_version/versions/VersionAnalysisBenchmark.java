@@ -0,0 +1,159 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.github.zafarkhaja.semver.Version;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import net.joostvdg.kube_app_version.versions.helm.HelmIndexParser;
+import net.joostvdg.kube_app_version.versions.util.SemanticVersionUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Compares {@link VersionAnalysis} with the per-field scans it replaced, analyzing every version of
+ * every chart in the CloudBees index fixture as if it were deployed. Not part of the regular test
+ * run, run it with {@code mvn test -Dtest=VersionAnalysisBenchmark}.
+ */
+class VersionAnalysisBenchmark {
+
+  private static final int WARMUP_ROUNDS = 20;
+  private static final int MEASURED_ROUNDS = 20;
+
+  @Test
+  void scansVersusVersionAnalysis() throws Exception {
+    Map<String, List<String>> charts;
+    try (InputStream index =
+        new ClassPathResource("cloudbees-helm-chart-index.yaml").getInputStream()) {
+      charts = HelmIndexParser.parseVersions(index, chartName -> true);
+    }
+    // The sorted strings the fetchers used to return
+    List<List<String>> sortedCharts =
+        charts.values().stream().map(versions -> VersionSet.parse(versions).asStrings()).toList();
+    int analyses = sortedCharts.stream().mapToInt(List::size).sum();
+
+    for (List<String> versions : sortedCharts) {
+      VersionSet versionSet = VersionSet.parse(versions);
+      for (String current : versions) {
+        assertEquals(
+            scans(current, versions),
+            VersionAnalysis.of(SemanticVersionUtil.parseVersion(current).orElseThrow(), versionSet),
+            current);
+      }
+    }
+
+    long scanNanos = measure(() -> runScans(sortedCharts));
+    long analysisNanos = measure(() -> runAnalysis(sortedCharts));
+    System.out.printf(
+        "Analyzed %d versions of %d charts: scans %.2f ms, VersionAnalysis %.2f ms (%.1fx)%n",
+        analyses,
+        sortedCharts.size(),
+        scanNanos / 1e6,
+        analysisNanos / 1e6,
+        (double) scanNanos / analysisNanos);
+  }
+
+  private static int runScans(List<List<String>> sortedCharts) {
+    int outdated = 0;
+    for (List<String> versions : sortedCharts) {
+      for (String current : versions) {
+        if (scans(current, versions).isOutdated()) {
+          outdated++;
+        }
+      }
+    }
+    return outdated;
+  }
+
+  /** Builds each version set once, like the fetchers do, and analyzes every usage against it. */
+  private static int runAnalysis(List<List<String>> sortedCharts) {
+    int outdated = 0;
+    for (List<String> versions : sortedCharts) {
+      VersionSet versionSet = VersionSet.parse(versions);
+      for (String current : versions) {
+        Version parsed = SemanticVersionUtil.parseVersion(current).orElseThrow();
+        if (VersionAnalysis.of(parsed, versionSet).isOutdated()) {
+          outdated++;
+        }
+      }
+    }
+    return outdated;
+  }
+
+  /** Returns the median duration of a round, after warming up. */
+  private static long measure(Round round) {
+    int expected = round.run();
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      assertEquals(expected, round.run());
+    }
+    long[] durations = new long[MEASURED_ROUNDS];
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      long start = System.nanoTime();
+      assertEquals(expected, round.run());
+      durations[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(durations);
+    return durations[MEASURED_ROUNDS / 2];
+  }
+
+  /**
+   * The analysis as it was done before {@link VersionSet}: a separate parse, filter and max pass
+   * over the version strings for every field, with the next versions passed around as strings.
+   */
+  private static VersionAnalysis scans(String currentStr, List<String> available) {
+    Version current = SemanticVersionUtil.parseVersion(currentStr).orElseThrow();
+    Version latest = SemanticVersionUtil.parseVersion(available.get(0)).orElse(null);
+    Version latestRelease =
+        parseAll(available).stream()
+            .filter(v -> !v.isPreRelease())
+            .max(Version::compareTo)
+            .orElse(null);
+    Version latestPreRelease =
+        parseAll(available).stream()
+            .filter(Version::isPreRelease)
+            .max(Version::compareTo)
+            .orElse(null);
+    Optional<Version> nextMinor =
+        parseAll(available).stream()
+            .filter(v -> !v.isPreRelease())
+            .filter(v -> v.majorVersion() == current.majorVersion())
+            .filter(v -> v.minorVersion() == current.minorVersion())
+            .filter(v -> v.isHigherThanOrEquivalentTo(current))
+            .max(Version::compareTo)
+            .map(Version::toString)
+            .flatMap(v -> Version.tryParse(v, false));
+    Optional<Version> nextMajor =
+        parseAll(available).stream()
+            .filter(v -> !v.isPreRelease())
+            .filter(v -> v.majorVersion() == current.majorVersion())
+            .filter(v -> v.isHigherThanOrEquivalentTo(current))
+            .max(Version::compareTo)
+            .map(Version::toString)
+            .flatMap(v -> Version.tryParse(v, false));
+    return new VersionAnalysis(
+        current,
+        latest,
+        latestRelease,
+        latestPreRelease,
+        nextMinor.orElse(null),
+        nextMajor.orElse(null),
+        SemanticVersionUtil.calculateMajorVersionDelta(current, nextMajor).orElse(null),
+        SemanticVersionUtil.calculateMinorVersionDelta(current, nextMinor).orElse(null));
+  }
+
+  private static List<Version> parseAll(List<String> versions) {
+    return versions.stream()
+        .map(SemanticVersionUtil::parseVersion)
+        .flatMap(Optional::stream)
+        .toList();
+  }
+
+  @FunctionalInterface
+  private interface Round {
+    int run();
+  }
+}
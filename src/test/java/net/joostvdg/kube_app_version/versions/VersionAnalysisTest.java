@@ -0,0 +1,37 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.zafarkhaja.semver.Version;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class VersionAnalysisTest {
+
+  private final VersionSet versions =
+      VersionSet.parse(List.of("1.4.0", "1.4.3", "1.6.1", "2.0.0", "2.1.0-rc.1"));
+
+  @Test
+  void computesNextVersionsAndDeltas() {
+    VersionAnalysis analysis = VersionAnalysis.of(Version.parse("1.4.1"), versions);
+
+    assertTrue(analysis.isOutdated());
+    assertEquals(Version.parse("2.1.0-rc.1"), analysis.latest());
+    assertEquals(Version.parse("2.0.0"), analysis.latestRelease());
+    assertEquals(Version.parse("2.1.0-rc.1"), analysis.latestPreRelease());
+    assertEquals(Version.parse("1.4.3"), analysis.nextMinor());
+    assertEquals(Version.parse("1.6.1"), analysis.nextMajor());
+    assertEquals(2L, analysis.majorVersionDelta());
+    assertEquals(2L, analysis.minorVersionDelta());
+  }
+
+  @Test
+  void latestReleaseIsNotOutdated() {
+    VersionAnalysis analysis = VersionAnalysis.of(Version.parse("2.0.0"), versions);
+
+    assertFalse(analysis.isOutdated());
+    assertEquals(Version.parse("2.0.0"), analysis.nextMajor());
+    assertEquals(0L, analysis.minorVersionDelta());
+  }
+}
@@ -0,0 +1,75 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.zafarkhaja.semver.Version;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class VersionSetTest {
+
+  private final VersionSet versions =
+      VersionSet.parse(
+          List.of(
+              "1.9.2",
+              "2.1.0-rc.1",
+              "v1.10",
+              "latest",
+              "1.9.0",
+              "2.0.1",
+              "1.10.0",
+              "3.0.0-beta.2"));
+
+  @Test
+  void sortsDistinctVersionsLatestFirst() {
+    assertEquals(
+        List.of("3.0.0-beta.2", "2.1.0-rc.1", "2.0.1", "1.10.0", "1.9.2", "1.9.0"),
+        versions.asStrings());
+    assertEquals(Optional.of(Version.parse("3.0.0-beta.2")), versions.latest());
+    assertEquals(Optional.of(Version.parse("2.0.1")), versions.latestRelease());
+    assertEquals(Optional.of(Version.parse("3.0.0-beta.2")), versions.latestPreRelease());
+  }
+
+  @Test
+  void findsLatestReleaseInCurrentSeries() {
+    Version current = Version.parse("1.9.0");
+
+    assertEquals(Optional.of(Version.parse("1.9.2")), versions.latestReleaseInMinor(current));
+    assertEquals(Optional.of(Version.parse("1.10.0")), versions.latestReleaseInMajor(current));
+    assertEquals(Optional.empty(), versions.latestReleaseInMinor(Version.parse("1.11.0")));
+    assertEquals(Optional.empty(), versions.latestReleaseInMajor(Version.parse("4.0.0")));
+  }
+
+  @Test
+  void dropsVersionsOlderThanFloor() {
+    assertEquals(
+        List.of("3.0.0-beta.2", "2.1.0-rc.1", "2.0.1", "1.10.0"),
+        versions.from(Version.parse("1.10.0")).asStrings());
+    assertSame(versions, versions.from(Version.parse("1.9.0")));
+    assertSame(versions, versions.from(null));
+    assertTrue(versions.from(Version.parse("4.0.0")).isEmpty());
+  }
+
+  @Test
+  void keepsTheTagsVersionsWereParsedFrom() {
+    VersionSet tagged = VersionSet.parse(List.of("v1.2.3", "1.2", "v1.10", "1.10.0"));
+
+    assertEquals(List.of("1.10.0", "v1.2.3", "1.2"), tagged.tags());
+    assertEquals("v1.2.3", tagged.tagOf(Version.parse("1.2.3")));
+    assertEquals("1.2", tagged.tagOf(Version.parse("1.2.0")));
+    assertEquals("1.10.0", tagged.tagOf(Version.parse("1.10.0")), "an exact tag is preferred");
+    assertEquals("2.0.0", tagged.tagOf(Version.parse("2.0.0")));
+    assertEquals(List.of("1.10.0", "v1.2.3"), tagged.from(Version.parse("1.2.3")).tags());
+  }
+
+  @Test
+  void emptyWithoutVersions() {
+    VersionSet empty = VersionSet.parse(List.of("latest", "main"));
+
+    assertTrue(empty.isEmpty());
+    assertEquals(VersionSet.empty(), empty);
+    assertEquals(Optional.empty(), empty.latestRelease());
+  }
+}
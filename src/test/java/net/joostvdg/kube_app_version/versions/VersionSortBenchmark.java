@@ -0,0 +1,93 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.github.zafarkhaja.semver.Version;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares sorting a large tag listing with {@link Version#compareTo(Version)} against the packed
+ * comparison used by {@link VersionSet}. Not part of the regular test run, run it with {@code mvn
+ * test -Dtest=VersionSortBenchmark}.
+ */
+class VersionSortBenchmark {
+
+  private static final int TAGS = 50_000;
+  private static final int WARMUP_ROUNDS = 10;
+  private static final int MEASURED_ROUNDS = 20;
+
+  @Test
+  void compareToVersusPackedSort() {
+    List<Version> tags = tags();
+    assertEquals(compareToSort(tags), VersionSet.sortLatestFirst(tags));
+
+    long[] compareTo = measure(() -> compareToSort(tags).size());
+    long[] packed = measure(() -> VersionSet.sortLatestFirst(tags).size());
+    System.out.printf(
+        "Sorted %d tags: compareTo %.2f ms / %d KiB, packed %.2f ms / %d KiB (%.1fx)%n",
+        tags.size(),
+        compareTo[0] / 1e6,
+        compareTo[1] / 1024,
+        packed[0] / 1e6,
+        packed[1] / 1024,
+        (double) compareTo[0] / packed[0]);
+  }
+
+  /** The sort {@link VersionSet} did before it packed versions. */
+  private static List<Version> compareToSort(List<Version> tags) {
+    return tags.stream().distinct().sorted(Comparator.reverseOrder()).toList();
+  }
+
+  /** Mostly releases, some pre-releases and build metadata, in registry (random) order. */
+  private static List<Version> tags() {
+    Random random = new Random(42);
+    List<Version> tags = new ArrayList<>(TAGS);
+    while (tags.size() < TAGS) {
+      String tag = random.nextInt(5) + "." + random.nextInt(60) + "." + random.nextInt(200);
+      int kind = random.nextInt(10);
+      if (kind == 0) {
+        tag += "-rc." + random.nextInt(5);
+      } else if (kind == 1) {
+        tag += "+" + Integer.toHexString(random.nextInt());
+      }
+      tags.add(Version.parse(tag));
+    }
+    Collections.shuffle(tags, random);
+    return tags;
+  }
+
+  /** Returns the median duration and allocated bytes of a round, after warming up. */
+  private static long[] measure(Round round) {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    int expected = round.run();
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      assertEquals(expected, round.run());
+    }
+    long[] durations = new long[MEASURED_ROUNDS];
+    long[] allocations = new long[MEASURED_ROUNDS];
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+      long start = System.nanoTime();
+      assertEquals(expected, round.run());
+      durations[i] = System.nanoTime() - start;
+      allocations[i] = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+    }
+    Arrays.sort(durations);
+    Arrays.sort(allocations);
+    return new long[] {durations[MEASURED_ROUNDS / 2], allocations[MEASURED_ROUNDS / 2]};
+  }
+
+  @FunctionalInterface
+  private interface Round {
+    int run();
+  }
+}
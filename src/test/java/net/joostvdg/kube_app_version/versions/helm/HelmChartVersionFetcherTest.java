@@ -3,21 +3,34 @@ package net.joostvdg.kube_app_version.versions.helm;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import net.joostvdg.kube_app_version.api.model.AppArtifact;
+import net.joostvdg.kube_app_version.config.OutdatedArtifactsProperties;
+import net.joostvdg.kube_app_version.versions.http.RegistryRequestThrottle;
+import net.joostvdg.kube_app_version.versions.http.VersionFetchMetrics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.ClassPathResource;
@@ -28,12 +41,31 @@ class HelmChartVersionFetcherTest {
 
   @Mock private HttpClient httpClient;
 
-  @Mock private HttpResponse<String> httpResponse;
+  @Mock private HttpResponse<InputStream> httpResponse;
 
-  @InjectMocks private HelmChartVersionFetcher fetcher;
+  @Mock private HttpResponse<InputStream> notModifiedResponse;
+
+  private HelmChartVersionFetcher fetcher;
 
   @BeforeEach
-  void setUp() {}
+  void setUp() {
+    lenient()
+        .when(httpResponse.headers())
+        .thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+    lenient()
+        .when(notModifiedResponse.headers())
+        .thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+    // The index is downloaded unconditionally unless a test stubs otherwise
+    lenient()
+        .when(httpResponse.request())
+        .thenReturn(HttpRequest.newBuilder(URI.create("https://charts.example.com")).build());
+    OutdatedArtifactsProperties properties = new OutdatedArtifactsProperties();
+    VersionFetchMetrics metrics = new VersionFetchMetrics(new SimpleMeterRegistry());
+    fetcher =
+        new HelmChartVersionFetcher(
+            new HelmRepositoryIndexCache(
+                httpClient, properties, metrics, new RegistryRequestThrottle(properties, metrics)));
+  }
 
   @AfterEach
   void tearDown() {
@@ -50,12 +82,12 @@ class HelmChartVersionFetcherTest {
         Files.readString(
             Path.of(new ClassPathResource("cloudbees-helm-chart-index.yaml").getURI()));
     when(httpResponse.statusCode()).thenReturn(200);
-    when(httpResponse.body()).thenReturn(indexContent);
+    when(httpResponse.body()).thenReturn(asStream(indexContent));
     when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
         .thenReturn(httpResponse);
 
     // Act
-    List<String> versions = fetcher.getAvailableVersions(appArtifact);
+    List<String> versions = fetcher.getAvailableVersions(appArtifact).asStrings();
 
     // Assert
     assertNotNull(versions);
@@ -81,14 +113,14 @@ class HelmChartVersionFetcherTest {
             Path.of(new ClassPathResource("prometheus-community-index.yaml").getURI()));
 
     when(httpResponse.statusCode()).thenReturn(200);
-    when(httpResponse.body()).thenReturn(largeIndexContent);
+    when(httpResponse.body()).thenReturn(asStream(largeIndexContent));
     when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
         .thenReturn(httpResponse);
 
     // Act & Assert
     assertDoesNotThrow(
         () -> {
-          List<String> versions = fetcher.getAvailableVersions(prometheusApp);
+          List<String> versions = fetcher.getAvailableVersions(prometheusApp).asStrings();
           assertNotNull(versions);
           assertFalse(versions.isEmpty());
           // Check if we got a reasonable number of versions for prometheus
@@ -96,6 +128,117 @@ class HelmChartVersionFetcherTest {
         });
   }
 
+  @Test
+  void getAvailableVersions_indexAboveFormerCodePointLimit() throws Exception {
+    // Arrange - an index well above the 5 MB code point limit the object-graph loader had
+    AppArtifact appArtifact = new AppArtifact("https://charts.example.com", "helm", "wanted-chart");
+    StringBuilder index = new StringBuilder("apiVersion: v1\nentries:\n");
+    for (int chart = 0; chart < 400; chart++) {
+      index.append("  other-chart-").append(chart).append(":\n");
+      for (int version = 0; version < 50; version++) {
+        index
+            .append("  - name: other-chart-")
+            .append(chart)
+            .append("\n    description: ")
+            .append("x".repeat(200))
+            .append("\n    version: 1.")
+            .append(version)
+            .append(".0\n");
+      }
+    }
+    index.append("  wanted-chart:\n");
+    index.append("  - name: wanted-chart\n    version: 2.1.0\n");
+    index.append("  - name: wanted-chart\n    version: 2.3.0\n");
+    index.append("  - name: wanted-chart\n    version: 2.2.0\n");
+    index.append("generated: 2025-01-01T00:00:00Z\n");
+    assertTrue(index.length() > 5 * 1024 * 1024);
+
+    when(httpResponse.statusCode()).thenReturn(200);
+    when(httpResponse.body()).thenReturn(asStream(index.toString()));
+    when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+        .thenReturn(httpResponse);
+
+    // Act
+    List<String> versions = fetcher.getAvailableVersions(appArtifact).asStrings();
+
+    // Assert
+    assertEquals(List.of("2.3.0", "2.2.0", "2.1.0"), versions);
+  }
+
+  @Test
+  void getAvailableVersions_chartsFromSameRepositoryShareOneDownload() throws Exception {
+    // Arrange
+    String repository = "https://public-charts.artifacts.cloudbees.com/repository/public";
+    String indexContent =
+        Files.readString(
+            Path.of(new ClassPathResource("cloudbees-helm-chart-index.yaml").getURI()));
+    when(httpResponse.statusCode()).thenReturn(200);
+    when(httpResponse.body()).thenReturn(asStream(indexContent));
+    when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+        .thenReturn(httpResponse);
+
+    // Act
+    List<String> sdaVersions =
+        fetcher
+            .getAvailableVersions(new AppArtifact(repository, "helm", "cloudbees-sda"))
+            .asStrings();
+    List<String> coreVersions =
+        fetcher
+            .getAvailableVersions(new AppArtifact(repository, "helm", "cloudbees-core"))
+            .asStrings();
+
+    // Assert
+    assertEquals("1.659.0+0a71e6d8c986", sdaVersions.get(0));
+    assertEquals("3.28985.0+797a7003b371", coreVersions.get(0));
+    verify(httpClient, times(1)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+  }
+
+  @Test
+  void getAvailableVersions_expiredIndexIsRevalidatedWithEtag() throws Exception {
+    // Arrange - a negative TTL makes every cached index expired
+    OutdatedArtifactsProperties properties = new OutdatedArtifactsProperties();
+    properties.setHelmIndexCacheTtlMinutes(-1);
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    VersionFetchMetrics metrics = new VersionFetchMetrics(meterRegistry);
+    fetcher =
+        new HelmChartVersionFetcher(
+            new HelmRepositoryIndexCache(
+                httpClient, properties, metrics, new RegistryRequestThrottle(properties, metrics)));
+    AppArtifact appArtifact =
+        new AppArtifact("https://charts.cloudbees.com/public/cloudbees", "helm", "cloudbees-sda");
+    String indexContent =
+        Files.readString(
+            Path.of(new ClassPathResource("cloudbees-helm-chart-index.yaml").getURI()));
+    when(httpResponse.statusCode()).thenReturn(200);
+    when(httpResponse.body()).thenReturn(asStream(indexContent));
+    when(httpResponse.headers())
+        .thenReturn(HttpHeaders.of(Map.of("ETag", List.of("\"v1\"")), (name, value) -> true));
+    when(notModifiedResponse.statusCode()).thenReturn(304);
+    when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+        .thenReturn(httpResponse, notModifiedResponse);
+
+    // Act
+    List<String> firstVersions = fetcher.getAvailableVersions(appArtifact).asStrings();
+    List<String> revalidatedVersions = fetcher.getAvailableVersions(appArtifact).asStrings();
+
+    // Assert
+    assertEquals(firstVersions, revalidatedVersions);
+    ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+    verify(httpClient, times(2)).send(requests.capture(), any(HttpResponse.BodyHandler.class));
+    assertTrue(requests.getAllValues().get(0).headers().firstValue("If-None-Match").isEmpty());
+    assertEquals(
+        "\"v1\"",
+        requests.getAllValues().get(1).headers().firstValue("If-None-Match").orElse(null));
+    assertEquals(
+        1.0,
+        meterRegistry
+            .get("kav.fetcher.revalidation")
+            .tag("cache", "helm-index")
+            .tag("result", "not_modified")
+            .counter()
+            .count());
+  }
+
   @Test
   void getAvailableVersions_httpError() throws Exception {
     // Arrange
@@ -120,7 +263,7 @@ class HelmChartVersionFetcherTest {
         new AppArtifact("https://charts.cloudbees.com/public/cloudbees", "helm", "any-chart");
     String invalidYaml = "this: is: not valid yaml";
     when(httpResponse.statusCode()).thenReturn(200);
-    when(httpResponse.body()).thenReturn(invalidYaml);
+    when(httpResponse.body()).thenReturn(asStream(invalidYaml));
     when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
         .thenReturn(httpResponse);
 
@@ -158,12 +301,12 @@ class HelmChartVersionFetcherTest {
         Files.readString(
             Path.of(new ClassPathResource("cloudbees-helm-chart-index.yaml").getURI()));
     when(httpResponse.statusCode()).thenReturn(200);
-    when(httpResponse.body()).thenReturn(indexContent);
+    when(httpResponse.body()).thenReturn(asStream(indexContent));
     when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
         .thenReturn(httpResponse);
 
     // Act
-    List<String> versions = fetcher.getAvailableVersions(nonExistentApp);
+    List<String> versions = fetcher.getAvailableVersions(nonExistentApp).asStrings();
 
     // Assert
     assertNotNull(versions);
@@ -215,12 +358,12 @@ class HelmChartVersionFetcherTest {
         new AppArtifact("https://charts.cloudbees.com/public/cloudbees", "helm", "any-chart");
     String indexContent = "apiVersion: v1\nentries: {}";
     when(httpResponse.statusCode()).thenReturn(200);
-    when(httpResponse.body()).thenReturn(indexContent);
+    when(httpResponse.body()).thenReturn(asStream(indexContent));
     when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
         .thenReturn(httpResponse);
 
     // Act
-    List<String> versions = fetcher.getAvailableVersions(appArtifact);
+    List<String> versions = fetcher.getAvailableVersions(appArtifact).asStrings();
 
     // Assert
     assertNotNull(versions);
@@ -240,12 +383,12 @@ class HelmChartVersionFetcherTest {
         Files.readString(
             Path.of(new ClassPathResource("cloudbees-helm-chart-index.yaml").getURI()));
     when(httpResponse.statusCode()).thenReturn(200);
-    when(httpResponse.body()).thenReturn(indexContent);
+    when(httpResponse.body()).thenReturn(asStream(indexContent));
     when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
         .thenReturn(httpResponse);
 
     // Act
-    List<String> versions = fetcher.getAvailableVersions(helmArtifact);
+    List<String> versions = fetcher.getAvailableVersions(helmArtifact).asStrings();
 
     // Assert
     assertNotNull(versions);
@@ -253,4 +396,8 @@ class HelmChartVersionFetcherTest {
     // TODO: how do we keep this in Sync?
     assertEquals("3.28985.0+797a7003b371", versions.get(0));
   }
+
+  private static InputStream asStream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
 }
@@ -0,0 +1,123 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Runs the cache against an in-process server that answers conditional requests. */
+class ConditionalHttpCacheTest {
+
+  private static final String CACHE = "test";
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+  private final AtomicInteger revision = new AtomicInteger(1);
+  private volatile Duration ttl = Duration.ZERO;
+  private HttpServer server;
+  private String url;
+  private ConditionalHttpCache<String> cache;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/index.yaml",
+        exchange -> {
+          String etag = "\"r" + revision.get() + "\"";
+          exchange.getResponseHeaders().add("ETag", etag);
+          if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+          }
+          byte[] body = ("revision " + revision.get()).getBytes(StandardCharsets.UTF_8);
+          exchange.sendResponseHeaders(200, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+        });
+    server.start();
+    url = "http://localhost:" + server.getAddress().getPort() + "/index.yaml";
+    cache = new ConditionalHttpCache<>(CACHE, () -> ttl, new VersionFetchMetrics(meterRegistry));
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  void servesFreshEntriesWithoutRequests() throws Exception {
+    ttl = Duration.ofMinutes(5);
+    assertEquals(Optional.empty(), cache.getIfFresh(url));
+
+    fetch(value -> true);
+
+    assertEquals(Optional.of("revision 1"), cache.getIfFresh(url));
+  }
+
+  @Test
+  void reusesThePayloadWhenNotModified() throws Exception {
+    assertEquals("revision 1", fetch(value -> true));
+    assertEquals(Optional.empty(), cache.getIfFresh(url), "expired entries are revalidated");
+
+    assertEquals("revision 1", fetch(value -> true));
+
+    assertEquals(1, count("not_modified"));
+    assertEquals(0, count("modified"));
+  }
+
+  @Test
+  void recordsModifiedOnlyForConditionalRequests() throws Exception {
+    fetch(value -> true);
+    revision.incrementAndGet();
+
+    // The cached payload cannot answer this request, so no validators are sent
+    assertEquals("revision 2", fetch(value -> false));
+    assertEquals(0, count("modified"));
+
+    revision.incrementAndGet();
+    assertEquals("revision 3", fetch(value -> true));
+    assertEquals(1, count("modified"));
+    assertEquals(0, count("not_modified"));
+  }
+
+  /** Fetches the URL the way the fetchers do, sending validators if the entry is reusable. */
+  private String fetch(Predicate<String> reusable) throws Exception {
+    HttpRequest request =
+        cache.withValidators(url, HttpRequest.newBuilder(URI.create(url)), reusable).build();
+    HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    Optional<String> notModified = cache.reuseIfNotModified(url, response);
+    return notModified.isPresent()
+        ? notModified.get()
+        : cache.store(url, response, response.body());
+  }
+
+  private double count(String result) {
+    Counter counter =
+        meterRegistry
+            .find("kav.fetcher.revalidation")
+            .tag("cache", CACHE)
+            .tag("result", result)
+            .counter();
+    return counter != null ? counter.count() : 0;
+  }
+}
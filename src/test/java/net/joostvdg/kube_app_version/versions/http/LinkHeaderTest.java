@@ -0,0 +1,53 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class LinkHeaderTest {
+
+  private final URI requestUri =
+      URI.create("https://api.github.com/users/joostvdg/packages/container/charts%2Fdemo/versions");
+
+  @Test
+  void readsGithubPaginationLinks() {
+    LinkHeader links =
+        LinkHeader.parse(
+            "<https://api.github.com/user/1/packages/container/x/versions?per_page=100&page=2>;"
+                + " rel=\"next\", <https://api.github.com/user/1/packages/container/x/versions"
+                + "?per_page=100&page=7>; rel=\"last\"");
+
+    assertEquals(
+        Optional.of(
+            URI.create(
+                "https://api.github.com/user/1/packages/container/x/versions?per_page=100&page=2")),
+        links.next(requestUri));
+    assertEquals(
+        Optional.of(
+            URI.create(
+                "https://api.github.com/user/1/packages/container/x/versions?per_page=100&page=7")),
+        links.get("last", requestUri));
+  }
+
+  @Test
+  void resolvesRelativeRegistryLinks() {
+    URI tagsUri = URI.create("https://registry.example.com/v2/library/nginx/tags/list?n=100");
+    LinkHeader links =
+        LinkHeader.parse("</v2/library/nginx/tags/list?n=100&last=1.25.3>; rel=\"next\"");
+
+    assertEquals(
+        Optional.of(
+            URI.create(
+                "https://registry.example.com/v2/library/nginx/tags/list?n=100&last=1.25.3")),
+        links.next(tagsUri));
+  }
+
+  @Test
+  void missingHeaderHasNoLinks() {
+    assertTrue(LinkHeader.parse(null).next(requestUri).isEmpty());
+    assertTrue(LinkHeader.parse("").next(requestUri).isEmpty());
+  }
+}
@@ -0,0 +1,148 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.joostvdg.kube_app_version.config.OutdatedArtifactsProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RegistryRequestThrottleTest {
+
+  @Mock private HttpClient httpClient;
+
+  @Mock private HttpResponse<String> rateLimitedResponse;
+
+  @Mock private HttpResponse<String> okResponse;
+
+  private final OutdatedArtifactsProperties properties = new OutdatedArtifactsProperties();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private RegistryRequestThrottle throttle;
+
+  private final HttpRequest request =
+      HttpRequest.newBuilder().uri(URI.create("https://registry.example.com/v2/")).build();
+
+  @BeforeEach
+  void setUp() {
+    throttle = new RegistryRequestThrottle(properties, new VersionFetchMetrics(meterRegistry));
+  }
+
+  @Test
+  void send_retriesAfterRetryAfter() throws Exception {
+    // Arrange
+    when(rateLimitedResponse.statusCode()).thenReturn(429);
+    when(rateLimitedResponse.headers()).thenReturn(headers(Map.of("Retry-After", "0")));
+    when(okResponse.statusCode()).thenReturn(200);
+    when(okResponse.headers()).thenReturn(headers(Map.of()));
+    when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+        .thenReturn(rateLimitedResponse, okResponse);
+
+    // Act
+    HttpResponse<String> response =
+        throttle.send(httpClient, request, HttpResponse.BodyHandlers.ofString());
+
+    // Assert
+    assertSame(okResponse, response);
+    verify(httpClient, times(2)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    assertEquals(
+        1.0,
+        meterRegistry
+            .get("kav.fetcher.rate.limited")
+            .tag("host", "registry.example.com")
+            .counter()
+            .count());
+  }
+
+  @Test
+  void send_givesUpWhenResetIsTooFarAway() throws Exception {
+    // Arrange - GitHub style exhausted rate limit that only resets in an hour
+    long resetEpochSecond = System.currentTimeMillis() / 1000 + 3600;
+    when(rateLimitedResponse.statusCode()).thenReturn(403);
+    when(rateLimitedResponse.headers())
+        .thenReturn(
+            headers(
+                Map.of("X-RateLimit-Remaining", "0", "X-RateLimit-Reset", "" + resetEpochSecond)));
+    when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+        .thenReturn(rateLimitedResponse);
+
+    // Act
+    HttpResponse<String> response =
+        throttle.send(httpClient, request, HttpResponse.BodyHandlers.ofString());
+
+    // Assert
+    assertSame(rateLimitedResponse, response);
+    verify(httpClient, times(1)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+  }
+
+  @Test
+  void send_failsFastWhileResetIsTooFarAway() throws Exception {
+    // Arrange - the first response exhausts the budget until an hour from now
+    long resetEpochSecond = System.currentTimeMillis() / 1000 + 3600;
+    when(rateLimitedResponse.statusCode()).thenReturn(403);
+    when(rateLimitedResponse.headers())
+        .thenReturn(
+            headers(
+                Map.of("X-RateLimit-Remaining", "0", "X-RateLimit-Reset", "" + resetEpochSecond)));
+    when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+        .thenReturn(rateLimitedResponse);
+    throttle.send(httpClient, request, HttpResponse.BodyHandlers.ofString());
+
+    // Act
+    long start = System.nanoTime();
+    HttpRequest nextRequest =
+        HttpRequest.newBuilder().uri(URI.create("https://registry.example.com/v2/other")).build();
+    assertThrows(
+        RateLimitExhaustedException.class,
+        () -> throttle.send(httpClient, nextRequest, HttpResponse.BodyHandlers.ofString()));
+
+    // Assert - the next request neither waited for the reset nor reached the registry
+    assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000);
+    verify(httpClient, times(1)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+  }
+
+  @Test
+  void send_exhaustedBudgetOfSuccessfulResponseDoesNotBlockNextRequest() throws Exception {
+    // Arrange - a 200 that used up the budget until an hour from now
+    long resetEpochSecond = System.currentTimeMillis() / 1000 + 3600;
+    when(okResponse.statusCode()).thenReturn(200);
+    when(okResponse.headers())
+        .thenReturn(
+            headers(
+                Map.of("X-RateLimit-Remaining", "0", "X-RateLimit-Reset", "" + resetEpochSecond)));
+    when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+        .thenReturn(okResponse);
+    assertSame(
+        okResponse, throttle.send(httpClient, request, HttpResponse.BodyHandlers.ofString()));
+
+    // Act & Assert
+    long start = System.nanoTime();
+    assertThrows(
+        RateLimitExhaustedException.class,
+        () -> throttle.send(httpClient, request, HttpResponse.BodyHandlers.ofString()));
+    assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000);
+  }
+
+  private static HttpHeaders headers(Map<String, String> values) {
+    Map<String, List<String>> multiValues = new HashMap<>();
+    values.forEach((name, value) -> multiValues.put(name, List.of(value)));
+    return HttpHeaders.of(multiValues, (name, value) -> true);
+  }
+}
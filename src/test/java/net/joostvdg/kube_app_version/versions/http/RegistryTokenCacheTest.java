@@ -0,0 +1,111 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class RegistryTokenCacheTest {
+
+  private static final String KEY = "auth.example.com|repository:charts/demo:pull";
+
+  private final RegistryTokenCache cache = new RegistryTokenCache();
+  private final AtomicInteger requests = new AtomicInteger();
+
+  @Test
+  void reusesTokenUntilItExpires() throws Exception {
+    assertEquals(
+        "first", cache.getToken(KEY, issue("first", Duration.ZERO, Duration.ofMinutes(5))));
+    assertEquals(
+        "first", cache.getToken(KEY, issue("second", Duration.ZERO, Duration.ofMinutes(5))));
+    assertEquals(1, requests.get());
+
+    // A token within the expiry margin is no longer handed out
+    cache.getToken("expiring", issue("expiring", Duration.ofSeconds(58), Duration.ofSeconds(60)));
+    assertEquals(
+        "renewed",
+        cache.getToken("expiring", issue("renewed", Duration.ZERO, Duration.ofMinutes(5))));
+    assertEquals(3, requests.get());
+  }
+
+  @Test
+  void refreshesTokenDueForRefreshOnceInTheBackground() throws Exception {
+    // Four fifths of the lifetime have passed, so the token is due for a refresh
+    cache.getToken(KEY, issue("current", Duration.ofSeconds(80), Duration.ofSeconds(100)));
+    CountDownLatch release = new CountDownLatch(1);
+    Callable<RegistryTokenCache.BearerToken> blockedRequest =
+        () -> {
+          assertTrue(release.await(5, TimeUnit.SECONDS));
+          return issue("refreshed", Duration.ZERO, Duration.ofMinutes(5)).call();
+        };
+
+    for (int i = 0; i < 10; i++) {
+      assertEquals("current", cache.getToken(KEY, blockedRequest), "callers do not wait");
+    }
+    release.countDown();
+
+    assertEquals("refreshed", awaitToken("refreshed"));
+    assertEquals(2, requests.get());
+  }
+
+  @Test
+  void keepsCurrentTokenWhenBackgroundRefreshFails() throws Exception {
+    cache.getToken(KEY, issue("current", Duration.ofSeconds(80), Duration.ofSeconds(100)));
+    CountDownLatch attempted = new CountDownLatch(1);
+
+    assertEquals(
+        "current",
+        cache.getToken(
+            KEY,
+            () -> {
+              attempted.countDown();
+              throw new IOException("auth service unavailable");
+            }));
+
+    assertTrue(attempted.await(5, TimeUnit.SECONDS));
+    assertEquals(
+        "current", cache.getToken(KEY, issue("next", Duration.ZERO, Duration.ofMinutes(5))));
+  }
+
+  @Test
+  void failsWhenNoValidTokenCanBeRequested() {
+    IOException failure =
+        assertThrows(
+            IOException.class,
+            () ->
+                cache.getToken(
+                    KEY,
+                    () -> {
+                      throw new IOException("auth service unavailable");
+                    }));
+    assertEquals("auth service unavailable", failure.getMessage());
+  }
+
+  /** Returns the token once the background refresh stored it, waiting up to five seconds. */
+  private String awaitToken(String expected) throws Exception {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    String token = cache.getToken(KEY, issue("unexpected", Duration.ZERO, Duration.ofMinutes(5)));
+    while (!expected.equals(token) && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+      token = cache.getToken(KEY, issue("unexpected", Duration.ZERO, Duration.ofMinutes(5)));
+    }
+    return token;
+  }
+
+  /** A token request that issues a token of the given age and lifetime, counting the requests. */
+  private Callable<RegistryTokenCache.BearerToken> issue(
+      String token, Duration age, Duration lifetime) {
+    return () -> {
+      requests.incrementAndGet();
+      Instant issuedAt = Instant.now().minus(age);
+      return new RegistryTokenCache.BearerToken(token, issuedAt, issuedAt.plus(lifetime));
+    };
+  }
+}
@@ -0,0 +1,64 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.image;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import net.joostvdg.kube_app_version.api.model.AppArtifact;
+import net.joostvdg.kube_app_version.versions.oci.OciRegistryClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ContainerImageVersionFetcherTest {
+
+  @Mock private OciRegistryClient registryClient;
+
+  private ContainerImageVersionFetcher fetcher;
+
+  @BeforeEach
+  void setUp() {
+    fetcher = new ContainerImageVersionFetcher(registryClient);
+  }
+
+  @Test
+  void listsDockerHubLibraryImageAndDropsNonVersionTags() throws Exception {
+    when(registryClient.listTags("registry-1.docker.io", "library/nginx"))
+        .thenReturn(
+            List.of(
+                "1.25.3",
+                "latest",
+                "mainline-alpine",
+                "sha256-0123abcd.sig",
+                "1.26.0",
+                "v1.24",
+                "1.26"));
+
+    List<String> versions =
+        fetcher
+            .getAvailableVersions(new AppArtifact("nginx:1.25.3", "containerImage", "web"))
+            .asStrings();
+
+    assertEquals(List.of("1.26.0", "1.25.3", "1.24.0"), versions);
+  }
+
+  @Test
+  void parsesImageReferences() {
+    assertEquals(
+        new ImageReference("registry-1.docker.io", "library/redis", "7.2"),
+        ImageReference.parse("docker.io/redis:7.2").orElseThrow());
+    assertEquals(
+        new ImageReference("ghcr.io", "org/app", "v1.2.0"),
+        ImageReference.parse("ghcr.io/org/app:v1.2.0").orElseThrow());
+    assertEquals(
+        new ImageReference("localhost:5000", "team/app", null),
+        ImageReference.parse("localhost:5000/team/app@sha256:abc").orElseThrow());
+    assertEquals(
+        new ImageReference("registry-1.docker.io", "bitnami/redis", "7.2.4-debian-12-r0"),
+        ImageReference.parse("bitnami/redis:7.2.4-debian-12-r0").orElseThrow());
+  }
+}
@@ -0,0 +1,126 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.oci;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.joostvdg.kube_app_version.config.OutdatedArtifactsProperties;
+import net.joostvdg.kube_app_version.versions.http.RegistryRequestThrottle;
+import net.joostvdg.kube_app_version.versions.http.RegistryTokenCache;
+import net.joostvdg.kube_app_version.versions.http.VersionFetchMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Runs the client against a minimal in-process stand-in for a token protected registry. */
+class OciRegistryClientTest {
+
+  private static final String TOKEN = "anonymous-token";
+
+  private HttpServer registry;
+  private String registryHost;
+  private OciRegistryClient client;
+  private final AtomicInteger tokenRequests = new AtomicInteger();
+  private final AtomicInteger challenges = new AtomicInteger();
+  private final AtomicInteger tagRequests = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() throws IOException {
+    registry = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    registryHost = "localhost:" + registry.getAddress().getPort();
+    registry.createContext(
+        "/token",
+        exchange -> {
+          tokenRequests.incrementAndGet();
+          assertTrue(
+              exchange.getRequestURI().getQuery().contains("scope=repository:charts/"),
+              "token request should ask for a repository scope");
+          respond(exchange, 200, "{\"token\":\"" + TOKEN + "\",\"expires_in\":300}");
+        });
+    registry.createContext("/v2/", this::handleTagsList);
+    registry.start();
+
+    OutdatedArtifactsProperties properties = new OutdatedArtifactsProperties();
+    properties.setOciTagsPageSize(2);
+    properties.setPlainHttpRegistries(List.of(registryHost));
+    VersionFetchMetrics metrics = new VersionFetchMetrics(new SimpleMeterRegistry());
+    client =
+        new OciRegistryClient(
+            properties,
+            metrics,
+            new RegistryRequestThrottle(properties, metrics),
+            new RegistryTokenCache());
+  }
+
+  @AfterEach
+  void tearDown() {
+    registry.stop(0);
+  }
+
+  @Test
+  void listsAllPagesWithAnonymousToken() throws Exception {
+    List<String> tags = client.listTags(registryHost, "charts/demo");
+
+    assertEquals(List.of("1.0.0", "1.1.0", "2.0.0"), tags);
+    assertEquals(1, challenges.get());
+    assertEquals(1, tokenRequests.get());
+  }
+
+  @Test
+  void reusesChallengeForOtherRepositoriesAndCachesTags() throws Exception {
+    client.listTags(registryHost, "charts/demo");
+    int tagRequestsAfterFirstListing = tagRequests.get();
+
+    client.listTags(registryHost, "charts/other");
+    client.listTags(registryHost, "charts/demo");
+
+    // The second repository sends a token up front, the repeated listing is served from cache
+    assertEquals(1, challenges.get());
+    assertEquals(2, tokenRequests.get());
+    assertEquals(tagRequestsAfterFirstListing + 2, tagRequests.get());
+  }
+
+  private void handleTagsList(HttpExchange exchange) throws IOException {
+    tagRequests.incrementAndGet();
+    if (!("Bearer " + TOKEN).equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+      challenges.incrementAndGet();
+      exchange
+          .getResponseHeaders()
+          .add(
+              "WWW-Authenticate",
+              "Bearer realm=\"http://"
+                  + registryHost
+                  + "/token\",service=\"test-registry\",scope=\"repository:charts/demo:pull\"");
+      respond(exchange, 401, "{\"errors\":[{\"code\":\"UNAUTHORIZED\"}]}");
+      return;
+    }
+    String path = exchange.getRequestURI().getPath();
+    String repository = path.substring("/v2/".length(), path.indexOf("/tags/list"));
+    String query = exchange.getRequestURI().getQuery();
+    if (query.contains("last=")) {
+      respond(exchange, 200, "{\"name\":\"" + repository + "\",\"tags\":[\"2.0.0\"]}");
+    } else {
+      exchange
+          .getResponseHeaders()
+          .add("Link", "</v2/" + repository + "/tags/list?n=2&last=1.1.0>; rel=\"next\"");
+      respond(exchange, 200, "{\"name\":\"" + repository + "\",\"tags\":[\"1.0.0\",\"1.1.0\"]}");
+    }
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.zafarkhaja.semver.Version;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class SemanticVersionUtilTest {
+
+  @Test
+  void normalizesShortAndPrefixedVersions() {
+    assertEquals(Version.of(1, 2, 0), SemanticVersionUtil.parseVersion("v1.2").orElseThrow());
+    assertEquals(
+        Version.parse("10.0.0-beta.1"),
+        SemanticVersionUtil.parseVersion("10.0-beta.1").orElseThrow());
+    assertTrue(SemanticVersionUtil.parseVersion(null).isEmpty());
+  }
+
+  @Test
+  void parsesEachDistinctStringOnce() {
+    CacheStats before = SemanticVersionUtil.parseCache().stats();
+
+    Optional<Version> first = SemanticVersionUtil.parseVersion("7.31.4");
+    Optional<Version> second = SemanticVersionUtil.parseVersion("7.31.4");
+    Optional<Version> invalid = SemanticVersionUtil.parseVersion("01.31.4");
+    Optional<Version> invalidAgain = SemanticVersionUtil.parseVersion("01.31.4");
+
+    CacheStats delta = SemanticVersionUtil.parseCache().stats().minus(before);
+    assertSame(first.orElseThrow(), second.orElseThrow());
+    assertTrue(invalid.isEmpty());
+    assertSame(invalid, invalidAgain);
+    assertEquals(2, delta.missCount());
+    assertEquals(2, delta.hitCount());
+  }
+
+  @Test
+  void exposesHitAndMissCounters() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    new VersionParseCacheMetrics().bindTo(registry);
+
+    SemanticVersionUtil.parseVersion("3.14.15");
+    SemanticVersionUtil.parseVersion("3.14.15");
+
+    assertTrue(
+        registry
+                .get("cache.gets")
+                .tag("cache", VersionParseCacheMetrics.CACHE_NAME)
+                .tag("result", "hit")
+                .functionCounter()
+                .count()
+            >= 1);
+    assertTrue(
+        registry
+                .get("cache.gets")
+                .tag("cache", VersionParseCacheMetrics.CACHE_NAME)
+                .tag("result", "miss")
+                .functionCounter()
+                .count()
+            >= 1);
+  }
+
+  @Test
+  void packedComparisonOrdersLikeSemver() {
+    List<Version> versions =
+        List.of(
+            Version.parse("1.0.0"),
+            Version.parse("1.0.0-rc.1"),
+            Version.parse("1.0.0-rc.2"),
+            Version.parse("1.0.0+build.1"),
+            Version.parse("1.0.0+build.2"),
+            Version.parse("1.0.1"),
+            Version.parse("1.10.0"),
+            Version.parse("2.0.0-alpha"),
+            Version.parse("1.0.20240101"),
+            Version.parse("2048576.0.0"));
+
+    for (Version a : versions) {
+      for (Version b : versions) {
+        assertEquals(
+            Integer.signum(a.compareTo(b)),
+            Integer.signum(SemanticVersionUtil.compare(a, b)),
+            a + " vs " + b);
+        assertEquals(
+            Integer.signum(a.compareToIgnoreBuildMetadata(b)),
+            Integer.signum(SemanticVersionUtil.comparePrecedence(a, b)),
+            a + " vs " + b);
+      }
+    }
+    assertEquals(
+        SemanticVersionUtil.UNPACKABLE,
+        SemanticVersionUtil.packVersion(Version.parse("1.0.20240101")));
+  }
+}
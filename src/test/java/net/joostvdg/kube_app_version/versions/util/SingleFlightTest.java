@@ -0,0 +1,115 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  private static final int CALLERS = 8;
+
+  private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+  private final AtomicInteger loads = new AtomicInteger();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final List<Thread> callers = new ArrayList<>();
+  private final ExecutorService executor =
+      Executors.newFixedThreadPool(
+          CALLERS,
+          runnable -> {
+            Thread thread = new Thread(runnable);
+            callers.add(thread);
+            return thread;
+          });
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  void concurrentCallersShareOneResult() throws Exception {
+    List<Future<String>> results =
+        callConcurrently(
+            () -> {
+              loads.incrementAndGet();
+              assertTrue(release.await(5, TimeUnit.SECONDS));
+              return "versions";
+            });
+
+    for (Future<String> result : results) {
+      assertEquals("versions", result.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void concurrentCallersShareOneFailure() throws Exception {
+    IOException failure = new IOException("registry unavailable");
+    List<Future<String>> results =
+        callConcurrently(
+            () -> {
+              loads.incrementAndGet();
+              assertTrue(release.await(5, TimeUnit.SECONDS));
+              throw failure;
+            });
+
+    for (Future<String> result : results) {
+      Exception thrown = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+      assertSame(failure, thrown.getCause());
+    }
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void completedCallsAreNotCached() throws Exception {
+    assertThrows(
+        IOException.class,
+        () ->
+            singleFlight.execute(
+                "chart",
+                () -> {
+                  throw new IOException("registry unavailable");
+                }));
+
+    assertEquals("versions", singleFlight.execute("chart", () -> "versions"));
+    assertEquals("other", singleFlight.execute("chart", () -> "other"));
+  }
+
+  private static boolean isWaiting(Thread thread) {
+    return thread.getState() == Thread.State.WAITING
+        || thread.getState() == Thread.State.TIMED_WAITING;
+  }
+
+  /**
+   * Lets every caller run the loader for the same key and releases the loader once all of them
+   * wait, the first one on the loader and the others on its call.
+   */
+  private List<Future<String>> callConcurrently(Callable<String> loader) throws Exception {
+    List<Future<String>> results = new ArrayList<>();
+    for (int i = 0; i < CALLERS; i++) {
+      results.add(executor.submit(() -> singleFlight.execute("chart", loader)));
+    }
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (callers.size() < CALLERS
+        || !callers.stream().allMatch(SingleFlightTest::isWaiting)
+        || loads.get() == 0) {
+      assertTrue(System.nanoTime() < deadline, "callers did not start waiting");
+      Thread.sleep(5);
+    }
+    release.countDown();
+    return results;
+  }
+}
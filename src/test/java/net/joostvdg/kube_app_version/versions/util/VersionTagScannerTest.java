@@ -0,0 +1,53 @@
+/* (C)2025 */
+package net.joostvdg.kube_app_version.versions.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.util.List;
+import net.joostvdg.kube_app_version.versions.util.VersionTagScanner.Shape;
+import org.junit.jupiter.api.Test;
+
+class VersionTagScannerTest {
+
+  @Test
+  void classifiesVersionShapes() {
+    assertEquals(Shape.MAJOR, VersionTagScanner.classify("7"));
+    assertEquals(Shape.MAJOR_MINOR, VersionTagScanner.classify("v1.26"));
+    assertEquals(Shape.MAJOR_MINOR, VersionTagScanner.classify("10.0-beta.1"));
+    assertEquals(Shape.MAJOR_MINOR_PATCH, VersionTagScanner.classify("1.25.3"));
+    assertEquals(Shape.MAJOR_MINOR_PATCH, VersionTagScanner.classify("7.2.4-debian-12-r0"));
+    assertEquals(Shape.MAJOR_MINOR_PATCH, VersionTagScanner.classify("1.659.0+0a71e6d8c986"));
+  }
+
+  @Test
+  void rejectsTagsThatAreNoVersion() {
+    for (String tag :
+        List.of(
+            "",
+            "v",
+            "latest",
+            "main-abc123",
+            "sha256-0123abcd.sig",
+            "3f2a9c1",
+            "1.2.3.4",
+            "1.2.",
+            "1.2.3-",
+            "1.2.3+",
+            "1.2.3-rc_1",
+            "1.2.3 ")) {
+      assertEquals(Shape.NOT_A_VERSION, VersionTagScanner.classify(tag), tag);
+    }
+    assertEquals(Shape.NOT_A_VERSION, VersionTagScanner.classify(null));
+  }
+
+  @Test
+  void rejectedTagsAreNotParsedOrCached() {
+    CacheStats before = SemanticVersionUtil.parseCache().stats();
+
+    assertTrue(SemanticVersionUtil.parseVersion("sha256-4d5e6f.att").isEmpty());
+    assertTrue(SemanticVersionUtil.parseVersion("nightly").isEmpty());
+
+    assertEquals(0, SemanticVersionUtil.parseCache().stats().minus(before).requestCount());
+  }
+}